@@ -0,0 +1,125 @@
+package com.acas.benchmark;
+
+import com.acas.AcasBackendApplication;
+import com.acas.id.TimeOrderedIds;
+import com.acas.metrics.QueryStatsFilter;
+import com.acas.schedule.ScheduleIndex;
+import com.acas.search.SearchIndexService;
+import com.acas.security.JwtUtil;
+import com.acas.service.EnrollmentService;
+import com.acas.service.ReportCounters;
+import jakarta.servlet.http.Cookie;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it for the
+ * end-to-end benchmarks.
+ */
+final class BenchmarkApplication {
+    
+    private static final String[] BASE_PROPERTIES = {
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "logging.level.root=WARN",
+            "logging.level.com.acas=WARN",
+            "logging.level.org.springframework.security=WARN"
+    };
+    
+    private BenchmarkApplication() {
+    }
+    
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(AcasBackendApplication.class)
+                .properties(Stream.concat(Stream.of(BASE_PROPERTIES), Stream.of(properties)).toArray(String[]::new))
+                .run();
+    }
+    
+    static MockMvc mockMvc(ConfigurableApplicationContext context) {
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context);
+        // MockMvc only installs filters it is given; query counting has to wrap the security chain
+        context.getBeanProvider(QueryStatsFilter.class).ifAvailable(builder::addFilters);
+        return builder.apply(springSecurity()).build();
+    }
+    
+    static Cookie tokenFor(ConfigurableApplicationContext context, String email, String role) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", String.class, email);
+        String token = context.getBean(JwtUtil.class).generateToken(
+                User.withUsername(email).password("unused").roles(role).build(), id, role);
+        return new Cookie("token", token);
+    }
+    
+    /**
+     * Inserts students and courses with JDBC batches and enrolls every student in
+     * {@code coursesPerStudent} courses through the enrollment service.
+     */
+    static Seed seed(ConfigurableApplicationContext context, int studentCount, int courseCount, int coursesPerStudent) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        EnrollmentService enrollmentService = context.getBean(EnrollmentService.class);
+        String password = context.getBean(PasswordEncoder.class).encode("student123");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        String instructorId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'teacher@acas.com'", String.class);
+        
+        List<String> studentIds = new ArrayList<>(studentCount);
+        List<Object[]> students = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            String id = TimeOrderedIds.nextId();
+            studentIds.add(id);
+            students.add(new Object[]{id, "student" + i + "@acas.edu", password, "Student " + i, now, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, email, password, name, role, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'STUDENT', 'ACTIVE', ?, ?)", students);
+        
+        String[] subjects = {"Algebra", "Calculus", "Databases", "Physics", "Chemistry", "History"};
+        List<String> courseIds = new ArrayList<>(courseCount);
+        List<Object[]> courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            String id = TimeOrderedIds.nextId();
+            courseIds.add(id);
+            String subject = subjects[i % subjects.length];
+            courses.add(new Object[]{id, subject + " " + i, "Introductory " + subject.toLowerCase() + " course, section " + i,
+                    instructorId, now, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO courses (id, name, description, instructor_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", courses);
+        
+        for (int s = 0; s < studentCount; s++) {
+            List<String> picked = new ArrayList<>(coursesPerStudent);
+            for (int k = 0; k < coursesPerStudent; k++) {
+                picked.add(courseIds.get((s * 7 + k * 131) % courseCount));
+            }
+            enrollmentService.enrollStudentInCourses(studentIds.get(s), picked);
+        }
+        
+        // Seed rows bypass the controllers, so rebuild everything derived from them
+        context.getBean(SearchIndexService.class).rebuild();
+        context.getBean(ScheduleIndex.class).rebuild();
+        context.getBean(ReportCounters.class).recompute();
+        return new Seed(studentIds, courseIds);
+    }
+    
+    record Seed(List<String> studentIds, List<String> courseIds) {
+    }
+}
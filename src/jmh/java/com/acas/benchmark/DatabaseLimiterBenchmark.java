@@ -0,0 +1,90 @@
+package com.acas.benchmark;
+
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Request throughput with many more concurrent callers than pooled connections, with and
+ * without {@code DatabaseConcurrencyLimiter} in front of the pool. Both runs use the
+ * virtual profile's JPA settings (open-in-view off) so only the limiter differs:
+ * <pre>
+ * mvn -Pbenchmarks verify -Djmh.include=DatabaseLimiterBenchmark
+ * </pre>
+ * MockMvc runs each request on the calling benchmark thread, so the 64 threads stand in
+ * for concurrent requests; the score is requests per second summed over all of them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class DatabaseLimiterBenchmark {
+    
+    private static final int STUDENTS = 5_000;
+    private static final int COURSES = 200;
+    private static final int COURSES_PER_STUDENT = 5;
+    
+    @Param({"false", "true"})
+    public boolean limiter;
+    
+    @Param({"4"})
+    public int poolSize;
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private Cookie adminToken;
+    private List<String> studentIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.open-in-view=false",
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "app.db-limiter.enabled=" + limiter);
+        studentIds = BenchmarkApplication.seed(context, STUDENTS, COURSES, COURSES_PER_STUDENT).studentIds();
+        
+        mockMvc = BenchmarkApplication.mockMvc(context);
+        adminToken = BenchmarkApplication.tokenFor(context, "admin@acas.com", "ADMIN");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int listCourses() throws Exception {
+        return mockMvc.perform(get("/courses").param("limit", "20").cookie(adminToken))
+                .andReturn().getResponse().getStatus();
+    }
+    
+    @Benchmark
+    public int studentDetail() throws Exception {
+        String id = studentIds.get(ThreadLocalRandom.current().nextInt(studentIds.size()));
+        return mockMvc.perform(get("/students/{id}", id).cookie(adminToken))
+                .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,88 @@
+package com.acas.benchmark;
+
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Full request path through the security filter chain, controllers and JPA against an
+ * in-memory H2 database seeded with term-sized volumes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+    
+    private static final int STUDENTS = 20_000;
+    private static final int COURSES = 600;
+    private static final int COURSES_PER_STUDENT = 5;
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private Cookie adminToken;
+    private Cookie studentToken;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, STUDENTS, COURSES, COURSES_PER_STUDENT);
+        
+        mockMvc = BenchmarkApplication.mockMvc(context);
+        adminToken = BenchmarkApplication.tokenFor(context, "admin@acas.com", "ADMIN");
+        studentToken = BenchmarkApplication.tokenFor(context, "student@acas.com", "STUDENT");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int listCourses() throws Exception {
+        return mockMvc.perform(get("/courses").param("limit", "20").cookie(adminToken))
+                .andReturn().getResponse().getStatus();
+    }
+    
+    @Benchmark
+    public int listCoursesCursor() throws Exception {
+        return mockMvc.perform(get("/courses").param("after", "").param("limit", "20").cookie(adminToken))
+                .andReturn().getResponse().getStatus();
+    }
+    
+    @Benchmark
+    public int searchCourses() throws Exception {
+        return mockMvc.perform(get("/courses").param("search", "algebra").cookie(adminToken))
+                .andReturn().getResponse().getStatus();
+    }
+    
+    @Benchmark
+    public int listStudentsDeepPage() throws Exception {
+        return mockMvc.perform(get("/students").param("page", "900").param("limit", "20").cookie(adminToken))
+                .andReturn().getResponse().getStatus();
+    }
+    
+    @Benchmark
+    public int currentUser() throws Exception {
+        return mockMvc.perform(get("/auth/me").cookie(studentToken))
+                .andReturn().getResponse().getStatus();
+    }
+}
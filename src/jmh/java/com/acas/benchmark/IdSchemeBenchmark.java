@@ -0,0 +1,157 @@
+package com.acas.benchmark;
+
+import com.acas.id.TimeOrderedIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts and primary-key lookups with random UUID strings in a VARCHAR column (the previous
+ * scheme) against time-ordered UUIDs in a native UUID column. The tables mirror
+ * {@code users} and the {@code course_enrollments} join table and are preloaded so the
+ * indexes are larger than a few pages. Runs on in-memory H2 by default; for PostgreSQL:
+ * <pre>
+ * mvn -Pbenchmarks verify -Djmh.include=IdSchemeBenchmark \
+ *     -Djmh.args="-p url=jdbc:postgresql://localhost:5432/acasdb?user=acas_user&amp;password=..."
+ * </pre>
+ * On PostgreSQL the index sizes of both tables are printed after each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdSchemeBenchmark {
+    
+    private static final int BATCH = 100;
+    private static final int COURSES = 200;
+    
+    @Param({"random-string", "time-ordered-uuid"})
+    public String scheme;
+    
+    @Param({"jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1"})
+    public String url;
+    
+    @Param({"100000"})
+    public int rows;
+    
+    private Connection connection;
+    private PreparedStatement insertUser;
+    private PreparedStatement insertEnrollment;
+    private PreparedStatement findUser;
+    private boolean compact;
+    private String[] userIds;
+    private String[] courseIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        compact = scheme.equals("time-ordered-uuid");
+        String idType = compact ? "UUID" : "VARCHAR(255)";
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_enrollments");
+            statement.execute("DROP TABLE IF EXISTS bench_users");
+            statement.execute("CREATE TABLE bench_users (id " + idType + " PRIMARY KEY, " +
+                    "email VARCHAR(255) NOT NULL, name VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE bench_enrollments (course_id " + idType + " NOT NULL, " +
+                    "student_id " + idType + " NOT NULL, PRIMARY KEY (course_id, student_id))");
+        }
+        insertUser = connection.prepareStatement("INSERT INTO bench_users (id, email, name) VALUES (?, ?, ?)");
+        insertEnrollment = connection.prepareStatement(
+                "INSERT INTO bench_enrollments (course_id, student_id) VALUES (?, ?)");
+        findUser = connection.prepareStatement("SELECT name FROM bench_users WHERE id = ?");
+        
+        courseIds = new String[COURSES];
+        for (int i = 0; i < COURSES; i++) {
+            courseIds[i] = newId();
+        }
+        userIds = new String[rows];
+        for (int i = 0; i < rows; i += BATCH) {
+            int count = Math.min(BATCH, rows - i);
+            String[] batch = insertBatch(count);
+            System.arraycopy(batch, 0, userIds, i, count);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (url.startsWith("jdbc:postgresql:")) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT pg_indexes_size('bench_users'), " +
+                         "pg_indexes_size('bench_enrollments')")) {
+                rs.next();
+                System.out.printf("%n%s index sizes: bench_users %d kB, bench_enrollments %d kB%n",
+                        scheme, rs.getLong(1) / 1024, rs.getLong(2) / 1024);
+            }
+        }
+        connection.close();
+    }
+    
+    /** One transaction adding a batch of users, each enrolled in one course. */
+    @Benchmark
+    public String[] insert() throws SQLException {
+        return insertBatch(BATCH);
+    }
+    
+    @Benchmark
+    public String lookup() throws SQLException {
+        bindId(findUser, 1, userIds[ThreadLocalRandom.current().nextInt(userIds.length)]);
+        try (ResultSet rs = findUser.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+    
+    private String[] insertBatch(int count) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] ids = new String[count];
+        connection.setAutoCommit(false);
+        for (int i = 0; i < count; i++) {
+            ids[i] = newId();
+            bindId(insertUser, 1, ids[i]);
+            insertUser.setString(2, ids[i] + "@acas.edu");
+            insertUser.setString(3, "Student " + ids[i].substring(0, 8));
+            insertUser.addBatch();
+            bindId(insertEnrollment, 1, courseIds[random.nextInt(COURSES)]);
+            bindId(insertEnrollment, 2, ids[i]);
+            insertEnrollment.addBatch();
+        }
+        insertUser.executeBatch();
+        insertEnrollment.executeBatch();
+        connection.commit();
+        return ids;
+    }
+    
+    private String newId() {
+        return compact ? TimeOrderedIds.nextId() : UUID.randomUUID().toString();
+    }
+    
+    // Same conversion as CompactUuidJavaType: the string form is parsed at the JDBC boundary
+    private void bindId(PreparedStatement statement, int index, String id) throws SQLException {
+        if (compact) {
+            statement.setObject(index, UUID.fromString(id));
+        } else {
+            statement.setString(index, id);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.acas.benchmark;
+
+import com.acas.security.JwtUtil;
+import com.acas.security.VerifiedClaims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token creation and verification throughput of {@link JwtUtil}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    
+    static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256";
+    
+    private JwtUtil jwtUtil;
+    private UserDetails user;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000L);
+        user = User.withUsername("student@acas.com").password("unused").roles("STUDENT").build();
+        token = jwtUtil.generateToken(user, "student-id", "STUDENT");
+    }
+    
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user, "student-id", "STUDENT");
+    }
+    
+    @Benchmark
+    public VerifiedClaims verify() {
+        return jwtUtil.verify(token);
+    }
+    
+    @Benchmark
+    public Boolean validateAgainstUserDetails() {
+        return jwtUtil.validateToken(token, user);
+    }
+}
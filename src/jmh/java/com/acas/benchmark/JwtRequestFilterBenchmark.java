@@ -0,0 +1,97 @@
+package com.acas.benchmark;
+
+import com.acas.model.User;
+import com.acas.repository.UserRepository;
+import com.acas.security.CustomUserDetailsService;
+import com.acas.security.JwtRequestFilter;
+import com.acas.security.JwtUtil;
+import com.acas.security.PrincipalCache;
+import jakarta.servlet.http.Cookie;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JWT filter per request: cookie extraction, token verification and building
+ * the Authentication. The repository is an in-memory stub, so "lookup" mode here shows
+ * only the CPU side; the end-to-end benchmark includes the real database round-trip.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtRequestFilterBenchmark {
+    
+    @Param({"claims", "lookup"})
+    public String authMode;
+    
+    // Unrelated cookies sent alongside the token (analytics, preferences...)
+    @Param({"0", "8"})
+    public int extraCookies;
+    
+    private JwtRequestFilter filter;
+    private Cookie[] cookies;
+    
+    @Setup
+    public void setUp() {
+        User account = new User();
+        account.setId("student-id");
+        account.setEmail("student@acas.com");
+        account.setPassword("unused");
+        account.setName("Jane Student");
+        account.setRole(User.UserRole.STUDENT);
+        account.setStatus(User.UserStatus.ACTIVE);
+        
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findById(account.getId())).thenReturn(Optional.of(account));
+        Mockito.when(userRepository.findByEmail(account.getEmail())).thenReturn(Optional.of(account));
+        
+        JwtUtil jwtUtil = new JwtUtil(JwtBenchmark.SECRET, 3_600_000L);
+        filter = new JwtRequestFilter(
+                new CustomUserDetailsService(userRepository),
+                jwtUtil,
+                new PrincipalCache(userRepository, 10_000, 300_000));
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+        
+        String token = jwtUtil.generateToken(
+                org.springframework.security.core.userdetails.User.withUsername(account.getEmail())
+                        .password("unused").roles("STUDENT").build(),
+                account.getId(), "STUDENT");
+        
+        cookies = new Cookie[extraCookies + 1];
+        for (int i = 0; i < extraCookies; i++) {
+            cookies[i] = new Cookie("pref" + i, "value" + i);
+        }
+        cookies[extraCookies] = new Cookie("token", token);
+    }
+    
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/courses");
+        request.setCookies(cookies);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,43 @@
+package com.acas.benchmark;
+
+import com.acas.dto.PaginationDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaginationBenchmark {
+    
+    public long total = 254_317;
+    public int page = 731;
+    public String lastId = "0b7f6c1e-5d0a-4c53-9a61-2f0d3b8e9c47";
+    public String cursor = PaginationDto.encodeCursor(lastId);
+    
+    @Benchmark
+    public PaginationDto pageMode() {
+        return PaginationDto.of(total, page, 10);
+    }
+    
+    @Benchmark
+    public PaginationDto cursorMode() {
+        return PaginationDto.ofCursor(10, true, true, lastId);
+    }
+    
+    @Benchmark
+    public String decodeCursor() {
+        return PaginationDto.decodeCursor(cursor);
+    }
+}
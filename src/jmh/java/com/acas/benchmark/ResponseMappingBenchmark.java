@@ -0,0 +1,114 @@
+package com.acas.benchmark;
+
+import com.acas.dto.PaginationDto;
+import com.acas.dto.course.CourseListData;
+import com.acas.dto.course.CourseSummary;
+import com.acas.model.Course;
+import com.acas.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and serializes a page of courses the way the controllers used to (nested
+ * HashMaps) and the way they do now (records). Run with {@code -prof gc} (the profile
+ * default) to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+    
+    @Param({"10", "100"})
+    public int pageSize;
+    
+    private ObjectMapper objectMapper;
+    private List<Course> courses;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        User instructor = new User();
+        instructor.setId("instructor-id");
+        instructor.setName("John Teacher");
+        
+        courses = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Course course = new Course();
+            course.setId("course-" + i);
+            course.setName("Course " + i);
+            course.setDescription("Description of course " + i + " with a few words of text");
+            course.setInstructor(instructor);
+            course.setStudents(new HashSet<>());
+            course.setCapacity(40);
+            course.setCreatedAt(LocalDateTime.now());
+            course.setUpdatedAt(LocalDateTime.now());
+            courses.add(course);
+        }
+    }
+    
+    @Benchmark
+    public byte[] legacyMaps() throws Exception {
+        List<Map<String, Object>> rows = courses.stream()
+                .map(course -> {
+                    Map<String, Object> dto = new HashMap<>();
+                    dto.put("id", course.getId());
+                    dto.put("name", course.getName());
+                    dto.put("description", course.getDescription());
+                    dto.put("instructorId", course.getInstructor().getId());
+                    dto.put("instructorName", course.getInstructor().getName());
+                    dto.put("studentsCount", course.getStudents().size());
+                    dto.put("capacity", course.getCapacity());
+                    dto.put("createdAt", course.getCreatedAt());
+                    dto.put("updatedAt", course.getUpdatedAt());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("courses", rows);
+        data.put("pagination", PaginationDto.of(1000, 1, pageSize));
+        return objectMapper.writeValueAsBytes(data);
+    }
+    
+    @Benchmark
+    public byte[] records() throws Exception {
+        List<CourseSummary> rows = courses.stream()
+                .map(course -> new CourseSummary(
+                        course.getId(),
+                        course.getName(),
+                        course.getDescription(),
+                        course.getInstructor().getId(),
+                        course.getInstructor().getName(),
+                        (long) course.getStudents().size(),
+                        course.getCapacity(),
+                        course.getCreatedAt(),
+                        course.getUpdatedAt()))
+                .collect(Collectors.toList());
+        
+        return objectMapper.writeValueAsBytes(new CourseListData(rows, PaginationDto.of(1000, 1, pageSize)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.acas.benchmark;
+
+import com.acas.metrics.QueryBudgetAdvice;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Entity reads with the second-level cache on and off. Course detail responses are not
+ * cached here (zero TTL), so every request resolves the course, roster and schedule through
+ * Hibernate, and lookup auth mode puts {@code findByEmail} on every request. The
+ * {@code sqlStatements}/{@code requests} counters give statements per request, read from the dev header.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecondLevelCacheBenchmark {
+    
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private Cookie adminToken;
+    private Cookie studentToken;
+    private List<String> courseIds;
+    private List<String> studentIds;
+    
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Statements {
+        public long requests;
+        public long sqlStatements;
+        private int next;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            sqlStatements = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "cache.course-detail.ttl-ms=0",
+                "jwt.auth-mode=lookup",
+                "metrics.query-stats.header=true");
+        BenchmarkApplication.Seed seed = BenchmarkApplication.seed(context, 2_000, 200, 5);
+        courseIds = seed.courseIds();
+        studentIds = seed.studentIds();
+        
+        mockMvc = BenchmarkApplication.mockMvc(context);
+        adminToken = BenchmarkApplication.tokenFor(context, "admin@acas.com", "ADMIN");
+        studentToken = BenchmarkApplication.tokenFor(context, "student@acas.com", "STUDENT");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int courseDetail(Statements statements) throws Exception {
+        String id = courseIds.get(statements.next++ % courseIds.size());
+        return perform(get("/courses/{id}", id).cookie(adminToken), statements);
+    }
+    
+    @Benchmark
+    public int studentDetail(Statements statements) throws Exception {
+        String id = studentIds.get(statements.next++ % studentIds.size());
+        return perform(get("/students/{id}", id).cookie(adminToken), statements);
+    }
+    
+    @Benchmark
+    public int currentUser(Statements statements) throws Exception {
+        return perform(get("/auth/me").cookie(studentToken), statements);
+    }
+    
+    private int perform(RequestBuilder request, Statements statements) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        String count = response.getHeader(QueryBudgetAdvice.STATEMENTS_HEADER);
+        statements.requests++;
+        if (count != null) {
+            statements.sqlStatements += Integer.parseInt(count);
+        }
+        return response.getStatus();
+    }
+}
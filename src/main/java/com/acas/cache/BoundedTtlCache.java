@@ -0,0 +1,101 @@
+package com.acas.cache;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Small size-bounded cache with time-to-live expiry. Reads are lock-free; when the
+ * cache is full, expired entries are swept first and then the least recently used
+ * tenth of the entries is dropped in one pass so eviction cost is amortized.
+ */
+public class BoundedTtlCache<K, V> {
+    
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+    
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.loadedAt >= ttlNanos) {
+            entries.remove(key, entry);
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+    
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+    
+    public void put(K key, V value) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict(now);
+        }
+        entries.put(key, new Entry<>(value, now));
+    }
+    
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+    
+    public void invalidateAll() {
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private synchronized void evict(long now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+    
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+        private volatile long lastAccess;
+        
+        private Entry(V value, long now) {
+            this.value = value;
+            this.loadedAt = now;
+            this.lastAccess = now;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.acas.cache;
+
+import com.acas.dto.course.CourseData;
+import com.acas.dto.course.CourseDetail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches the immutable course detail payload together with a strong ETag built from the course's
+ * {@code updatedAt} and an in-memory version. Enrollment changes bump the version after
+ * commit and course updates bump it right away, so a conditional GET can be answered with
+ * 304 from memory and a payload loaded before a change is never cached after it.
+ */
+@Component
+public class CourseDetailCache {
+    
+    // Distinguishes ETags of this process from those issued before a restart reset the versions
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final BoundedTtlCache<String, CachedDetail> cache;
+    
+    public CourseDetailCache(@Value("${cache.course-detail.max-size:2000}") int maxSize,
+                             @Value("${cache.course-detail.ttl-ms:600000}") long ttlMillis) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
+    
+    public CachedDetail get(String courseId, Function<String, Snapshot> loader) {
+        CachedDetail cached = cache.getIfPresent(courseId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long version = version(courseId);
+        Snapshot snapshot = loader.apply(courseId);
+        CachedDetail detail = new CachedDetail(snapshot.data(), etag(snapshot.updatedAt(), version));
+        // Only cache if no change happened while loading
+        if (version(courseId) == version) {
+            cache.put(courseId, detail);
+        }
+        return detail;
+    }
+    
+    /** Bumps the version of a course whose own fields have just been saved. */
+    public void invalidate(String courseId) {
+        bump(courseId);
+    }
+    
+    public void remove(String courseId) {
+        cache.invalidate(courseId);
+        versions.remove(courseId);
+    }
+    
+    /** Bumps the version of the course once the current transaction commits. */
+    public void enrollmentChanged(String courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(courseId);
+                }
+            });
+        } else {
+            bump(courseId);
+        }
+    }
+    
+    private void bump(String courseId) {
+        versions.computeIfAbsent(courseId, key -> new AtomicLong()).incrementAndGet();
+        cache.invalidate(courseId);
+    }
+    
+    private long version(String courseId) {
+        AtomicLong version = versions.get(courseId);
+        return version != null ? version.get() : 0L;
+    }
+    
+    private String etag(LocalDateTime updatedAt, long version) {
+        long updated = updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return "\"" + Long.toString(updated, 36) + "-" + version + "-" + epoch + "\"";
+    }
+    
+    public record Snapshot(CourseData<CourseDetail> data, LocalDateTime updatedAt) {
+    }
+    
+    public record CachedDetail(CourseData<CourseDetail> data, String etag) {
+        
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
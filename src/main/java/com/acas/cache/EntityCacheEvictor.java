@@ -0,0 +1,65 @@
+package com.acas.cache;
+
+import com.acas.model.Course;
+import com.acas.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Keeps the Hibernate second-level cache in step with rows written through JdbcTemplate,
+ * which Hibernate never sees. Evictions run after commit so a concurrent reader cannot
+ * re-cache the pre-commit state.
+ */
+@Component
+public class EntityCacheEvictor {
+    
+    private static final String COURSE_STUDENTS = Course.class.getName() + ".students";
+    private static final String USER_ENROLLED_COURSES = User.class.getName() + ".enrolledCourses";
+    private static final String COURSE_PREREQUISITES = Course.class.getName() + ".prerequisiteIds";
+    
+    private final Cache cache;
+    
+    public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+    
+    public void enrollmentChanged(String courseId, String studentId) {
+        afterCommit(() -> {
+            cache.evictCollectionData(COURSE_STUDENTS, courseId);
+            cache.evictCollectionData(USER_ENROLLED_COURSES, studentId);
+        });
+    }
+    
+    // Which courses listed the removed prerequisite is not known here, so the whole region goes
+    public void prerequisiteRemoved() {
+        afterCommit(() -> cache.evictCollectionData(COURSE_PREREQUISITES));
+    }
+    
+    public void usersChanged(Collection<String> userIds) {
+        afterCommit(() -> userIds.forEach(id -> cache.evictEntityData(User.class, id)));
+    }
+    
+    // Cached queries over users, such as a login lookup that found no account, would miss the new rows
+    public void usersInserted() {
+        afterCommit(cache::evictDefaultQueryRegion);
+    }
+    
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
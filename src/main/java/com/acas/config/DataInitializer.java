@@ -7,10 +7,14 @@ import com.acas.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
+@ConditionalOnProperty(name = "app.seed-data.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
@@ -30,7 +34,6 @@ public class DataInitializer implements CommandLineRunner {
             admin.setName("Admin User");
             admin.setRole(UserRole.ADMIN);
             admin.setStatus(UserStatus.ACTIVE);
-            userRepository.save(admin);
             log.info("Created admin user: admin@acas.com / admin123");
             
             // Create Teacher user
@@ -40,7 +43,6 @@ public class DataInitializer implements CommandLineRunner {
             teacher.setName("John Teacher");
             teacher.setRole(UserRole.TEACHER);
             teacher.setStatus(UserStatus.ACTIVE);
-            userRepository.save(teacher);
             log.info("Created teacher user: teacher@acas.com / teacher123");
             
             // Create Student user
@@ -50,9 +52,10 @@ public class DataInitializer implements CommandLineRunner {
             student.setName("Jane Student");
             student.setRole(UserRole.STUDENT);
             student.setStatus(UserStatus.ACTIVE);
-            userRepository.save(student);
             log.info("Created student user: student@acas.com / student123");
             
+            userRepository.saveAll(List.of(admin, teacher, student));
+            
             log.info("Database initialization completed!");
         } else {
             log.info("Database already contains data, skipping initialization.");
@@ -0,0 +1,126 @@
+package com.acas.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds the number of connections checked out of the application DataSource to the
+ * size of the pool. With virtual threads thousands of requests may ask for a connection
+ * at once; a fair semaphore makes them queue in arrival order here instead of piling up
+ * on Hikari's connection acquisition. The permit is taken when a connection is obtained
+ * and returned when it is closed, so transactions, JdbcTemplate calls and gradebook
+ * workers are all covered.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db-limiter.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor {
+    
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMillis;
+    
+    public DatabaseConcurrencyLimiter(
+            @Value("${app.db-limiter.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int maxPermits,
+            @Value("${app.db-limiter.acquire-timeout-ms:30000}") long acquireTimeoutMillis) {
+        this.maxPermits = maxPermits;
+        this.permits = new Semaphore(maxPermits, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        log.info("Database concurrency limiter enabled with {} permits", maxPermits);
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitingDataSource)) {
+            return new LimitingDataSource(dataSource);
+        }
+        return bean;
+    }
+    
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+    
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+    
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+    
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeoutMillis + " ms waiting for a database permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+    
+    // The permit goes back on the first close(); closing twice must not release it twice
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                DatabaseConcurrencyLimiter.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+    
+    // DelegatingDataSource keeps the pool reachable for DataSourceUnwrapper (Hikari metrics)
+    private final class LimitingDataSource extends DelegatingDataSource {
+        
+        private LimitingDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(obtainTargetDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+}
@@ -6,7 +6,9 @@ import com.acas.dto.auth.LoginResponse;
 import com.acas.dto.auth.UserDto;
 import com.acas.model.User;
 import com.acas.repository.UserRepository;
+import com.acas.security.AccountUserDetails;
 import com.acas.security.JwtUtil;
+import com.acas.service.LastLoginBuffer;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
@@ -16,8 +18,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -28,30 +28,26 @@ import java.time.LocalDateTime;
 public class AuthController {
     
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final LastLoginBuffer lastLoginBuffer;
     
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<LoginResponse>> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletResponse response) {
         
-        // Authenticate user
-        authenticationManager.authenticate(
+        // Authenticate user; the principal carries the account loaded during authentication
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
+        final AccountUserDetails userDetails = (AccountUserDetails) authentication.getPrincipal();
+        User user = userDetails.getAccount();
         
-        // Load user details
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
-        
-        // Get user from database
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Update last login
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        // Update last login (flushed in batches by LastLoginBuffer)
+        LocalDateTime now = LocalDateTime.now();
+        user.setLastLogin(now);
+        lastLoginBuffer.record(user.getId(), now);
         
         // Generate JWT token
         final String jwt = jwtUtil.generateToken(userDetails, user.getId(), user.getRole().name());
@@ -1,15 +1,41 @@
 package com.acas.controller;
 
+import com.acas.cache.CourseDetailCache;
 import com.acas.dto.ApiResponse;
 import com.acas.dto.PaginationDto;
+import com.acas.dto.course.CourseData;
+import com.acas.dto.course.CourseDetail;
+import com.acas.dto.course.CourseEnrollmentBatch;
+import com.acas.dto.course.CourseListData;
+import com.acas.dto.course.CoursePrerequisites;
+import com.acas.dto.course.CourseSummary;
+import com.acas.dto.course.Gradebook;
+import com.acas.dto.course.GradesRecorded;
+import com.acas.grade.GradebookEngine;
+import com.acas.metrics.QueryBudget;
 import com.acas.model.Course;
 import com.acas.model.User;
+import com.acas.prerequisite.PrerequisiteIndex;
 import com.acas.repository.CourseRepository;
 import com.acas.repository.UserRepository;
+import com.acas.schedule.ScheduleIndex;
+import com.acas.search.SearchIndexService;
+import com.acas.security.JwtPrincipal;
+import com.acas.service.EnrollmentService;
+import com.acas.service.ExportService;
+import com.acas.service.GradeService;
+import com.acas.service.ReportCounters;
+import com.acas.service.SeatLedger;
+import com.acas.workload.TeacherWorkloadLedger;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,9 +43,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -29,65 +61,128 @@ public class CourseController {
     
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final SearchIndexService searchIndexService;
+    private final EnrollmentService enrollmentService;
+    private final SeatLedger seatLedger;
+    private final CourseDetailCache courseDetailCache;
+    private final ExportService exportService;
+    private final ReportCounters reportCounters;
+    private final ScheduleIndex scheduleIndex;
+    private final PrerequisiteIndex prerequisiteIndex;
+    private final GradebookEngine gradebookEngine;
+    private final GradeService gradeService;
+    private final TeacherWorkloadLedger workloadLedger;
     
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllCourses(
+    @QueryBudget(statements = 4)
+    public ResponseEntity<ApiResponse<CourseListData>> getAllCourses(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String instructorId,
-            @RequestParam(required = false) Boolean enrolled) {
+            @RequestParam(required = false) Boolean enrolled,
+            @RequestParam(required = false) String after) {
+        
+        if (after != null) {
+            return getCoursesAfter(after, limit, search, instructorId, enrolled);
+        }
         
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Course> coursePage;
+        Page<CourseSummary> coursePage;
         
         if (enrolled != null && enrolled) {
-            // Get current user
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User currentUser = userRepository.findByEmail(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            coursePage = courseRepository.findByStudentId(currentUser.getId(), pageable);
+            coursePage = courseRepository.findSummariesByStudentId(currentUserId(), pageable);
         } else if (instructorId != null) {
-            coursePage = courseRepository.findByInstructorId(instructorId, pageable);
+            coursePage = courseRepository.findSummariesByInstructorId(instructorId, pageable);
         } else if (search != null && !search.isEmpty()) {
-            coursePage = courseRepository.searchCourses(search, pageable);
+            coursePage = searchCourses(search, pageable);
         } else {
-            coursePage = courseRepository.findAll(pageable);
+            coursePage = courseRepository.findAllSummaries(pageable);
         }
         
-        List<Map<String, Object>> courses = coursePage.getContent().stream()
-                .map(this::mapCourseToDto)
-                .collect(Collectors.toList());
-        
         PaginationDto pagination = PaginationDto.of(
                 coursePage.getTotalElements(),
                 page,
                 limit
         );
         
-        Map<String, Object> data = new HashMap<>();
-        data.put("courses", courses);
-        data.put("pagination", pagination);
+        return ResponseEntity.ok(ApiResponse.success(new CourseListData(coursePage.getContent(), pagination)));
+    }
+    
+    private ResponseEntity<ApiResponse<CourseListData>> getCoursesAfter(
+            String after, int limit, String search, String instructorId, Boolean enrolled) {
+        
+        String afterId = PaginationDto.decodeCursor(after);
+        if (afterId == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_CURSOR", "Malformed pagination cursor"));
+        }
+        
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<CourseSummary> courseSlice;
+        
+        if (enrolled != null && enrolled) {
+            courseSlice = courseRepository.findSummariesByStudentIdAfter(currentUserId(), afterId, pageable);
+        } else if (instructorId != null) {
+            courseSlice = courseRepository.findSummariesByInstructorIdAfter(instructorId, afterId, pageable);
+        } else if (search != null && !search.isEmpty()) {
+            courseSlice = searchCoursesAfter(search, afterId, pageable);
+        } else {
+            courseSlice = courseRepository.findSummariesAfter(afterId, pageable);
+        }
+        
+        List<CourseSummary> content = courseSlice.getContent();
+        PaginationDto pagination = PaginationDto.ofCursor(
+                limit,
+                courseSlice.hasNext(),
+                !PaginationDto.BEFORE_FIRST.equals(afterId),
+                content.isEmpty() ? null : content.get(content.size() - 1).id()
+        );
         
-        return ResponseEntity.ok(ApiResponse.success(data));
+        return ResponseEntity.ok(ApiResponse.success(new CourseListData(content, pagination)));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public void exportCourses(HttpServletResponse response) throws IOException {
+        response.setContentType(ExportService.NDJSON);
+        exportService.exportCourses(response.getOutputStream());
+    }
+    
+    @GetMapping("/export/enrollments")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public void exportEnrollments(HttpServletResponse response) throws IOException {
+        response.setContentType(ExportService.NDJSON);
+        exportService.exportEnrollments(response.getOutputStream());
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCourseById(@PathVariable String id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+    @QueryBudget(statements = 4)
+    public ResponseEntity<ApiResponse<CourseData<CourseDetail>>> getCourseById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        Map<String, Object> courseData = mapCourseToDtoDetail(course);
+        CourseDetailCache.CachedDetail detail = courseDetailCache.get(id, this::loadCourseDetail);
+        if (detail.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(detail.etag()).build();
+        }
         
-        Map<String, Object> data = new HashMap<>();
-        data.put("course", courseData);
+        return ResponseEntity.ok()
+                .eTag(detail.etag())
+                .body(ApiResponse.success(detail.data()));
+    }
+    
+    private CourseDetailCache.Snapshot loadCourseDetail(String id) {
+        Course course = courseRepository.findWithStudentsById(id)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
         
-        return ResponseEntity.ok(ApiResponse.success(data));
+        return new CourseDetailCache.Snapshot(new CourseData<>(mapCourseToDtoDetail(course)), course.getUpdatedAt());
     }
     
     @PostMapping
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> createCourse(@RequestBody Map<String, Object> request) {
+    @QueryBudget(statements = 4)
+    public ResponseEntity<ApiResponse<CourseData<CourseSummary>>> createCourse(@RequestBody Map<String, Object> request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = userRepository.findByEmail(auth.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -100,24 +195,48 @@ public class CourseController {
         if (request.containsKey("syllabus")) {
             course.setSyllabus((String) request.get("syllabus"));
         }
+        if (request.containsKey("capacity")) {
+            course.setCapacity(toInteger(request.get("capacity")));
+        }
+        applySchedule(course, request);
+        if (!applyWorkload(course, request)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_WORKLOAD", "Weekly hours must be positive and the period at most 20 characters"));
+        }
         
-        courseRepository.save(course);
-        
-        Map<String, Object> courseData = mapCourseToDto(course);
-        Map<String, Object> data = new HashMap<>();
-        data.put("course", courseData);
+        // Hours are claimed before the insert so two concurrent courses cannot both pass the limit
+        TeacherWorkloadLedger.Assignment assignment = TeacherWorkloadLedger.Assignment.of(
+                currentUser.getId(), course.getPeriod(), course.getWeeklyHours());
+        if (assignment != null && !workloadLedger.reserve(assignment)) {
+            return teacherOverloaded();
+        }
+        try {
+            courseRepository.save(course);
+        } catch (RuntimeException e) {
+            if (assignment != null) {
+                workloadLedger.release(assignment);
+            }
+            throw e;
+        }
+        if (assignment != null) {
+            workloadLedger.bind(course.getId(), assignment);
+        }
+        searchIndexService.indexCourse(course);
+        reportCounters.courseCreated(course.getId(), course.getName());
+        scheduleIndex.updateCourse(course.getId(), course.getScheduleDays(), course.getScheduleTime());
         
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success(data, "Course created successfully"));
+                .body(ApiResponse.success(new CourseData<>(mapCourseToDto(course, 0)), "Course created successfully"));
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> updateCourse(
+    @QueryBudget(statements = 8)
+    public ResponseEntity<ApiResponse<CourseData<CourseSummary>>> updateCourse(
             @PathVariable String id,
             @RequestBody Map<String, Object> request) {
         
-        Course course = courseRepository.findById(id)
+        Course course = courseRepository.findWithScheduleById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
         
         if (request.containsKey("name")) {
@@ -129,58 +248,339 @@ public class CourseController {
         if (request.containsKey("syllabus")) {
             course.setSyllabus((String) request.get("syllabus"));
         }
+        if (request.containsKey("capacity")) {
+            course.setCapacity(toInteger(request.get("capacity")));
+        }
+        applySchedule(course, request);
+        if (!applyWorkload(course, request)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_WORKLOAD", "Weekly hours must be positive and the period at most 20 characters"));
+        }
+        if (request.get("instructorId") instanceof String instructorId
+                && (course.getInstructor() == null || !instructorId.equals(course.getInstructor().getId()))) {
+            User instructor = userRepository.findById(instructorId).orElse(null);
+            if (instructor == null || instructor.getRole() != User.UserRole.TEACHER) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("INVALID_INSTRUCTOR", "Instructor must be an existing teacher"));
+            }
+            course.setInstructor(instructor);
+        }
         
-        courseRepository.save(course);
-        
-        Map<String, Object> courseData = mapCourseToDto(course);
-        Map<String, Object> data = new HashMap<>();
-        data.put("course", courseData);
+        TeacherWorkloadLedger.Assignment previous = workloadLedger.assignmentOf(id);
+        if (!workloadLedger.reassign(id, TeacherWorkloadLedger.Assignment.of(
+                course.getInstructor() != null ? course.getInstructor().getId() : null,
+                course.getPeriod(), course.getWeeklyHours()))) {
+            return teacherOverloaded();
+        }
+        try {
+            courseRepository.save(course);
+        } catch (RuntimeException e) {
+            workloadLedger.restore(id, previous);
+            throw e;
+        }
+        searchIndexService.indexCourse(course);
+        scheduleIndex.updateCourse(course.getId(), course.getScheduleDays(), course.getScheduleTime());
+        seatLedger.updateCapacity(course.getId(), course.getCapacity());
+        courseDetailCache.invalidate(course.getId());
+        reportCounters.courseRenamed(course.getId(), course.getName());
         
-        return ResponseEntity.ok(ApiResponse.success(data, "Course updated successfully"));
+        CourseSummary summary = mapCourseToDto(course, courseRepository.countStudentsById(id));
+        return ResponseEntity.ok(ApiResponse.success(new CourseData<>(summary), "Course updated successfully"));
     }
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 9)
     public ResponseEntity<ApiResponse<Void>> deleteCourse(@PathVariable String id) {
-        courseRepository.deleteById(id);
+        enrollmentService.deleteCourse(id);
+        searchIndexService.removeCourse(id);
+        seatLedger.remove(id);
+        courseDetailCache.remove(id);
+        reportCounters.courseDeleted(id);
+        scheduleIndex.removeCourse(id);
+        prerequisiteIndex.removeCourse(id);
+        gradebookEngine.invalidate(id);
+        workloadLedger.removeCourse(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Course deleted successfully"));
     }
     
-    private Map<String, Object> mapCourseToDto(Course course) {
-        Map<String, Object> dto = new HashMap<>();
-        dto.put("id", course.getId());
-        dto.put("name", course.getName());
-        dto.put("description", course.getDescription());
-        dto.put("instructorId", course.getInstructor() != null ? course.getInstructor().getId() : null);
-        dto.put("instructorName", course.getInstructor() != null ? course.getInstructor().getName() : null);
-        dto.put("studentsCount", course.getStudents().size());
-        dto.put("createdAt", course.getCreatedAt());
-        dto.put("updatedAt", course.getUpdatedAt());
-        return dto;
-    }
-    
-    private Map<String, Object> mapCourseToDtoDetail(Course course) {
-        Map<String, Object> dto = mapCourseToDto(course);
-        
-        List<Map<String, Object>> students = course.getStudents().stream()
-                .map(student -> {
-                    Map<String, Object> s = new HashMap<>();
-                    s.put("id", student.getId());
-                    s.put("name", student.getName());
-                    s.put("email", student.getEmail());
-                    s.put("enrolledAt", course.getCreatedAt());
-                    return s;
-                })
-                .collect(Collectors.toList());
+    @PutMapping("/{id}/prerequisites")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @QueryBudget(statements = 6)
+    public ResponseEntity<ApiResponse<CoursePrerequisites>> updatePrerequisites(
+            @PathVariable String id,
+            @RequestBody Map<String, List<String>> request) {
+        
+        Course course = courseRepository.findWithPrerequisitesById(id)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+        
+        Set<String> prerequisiteIds = new LinkedHashSet<>(request.getOrDefault("prerequisiteIds", List.of()));
+        if (!prerequisiteIds.isEmpty() && courseRepository.countByIdIn(prerequisiteIds) != prerequisiteIds.size()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("COURSE_NOT_FOUND", "Unknown prerequisite course"));
+        }
+        
+        // The graph rejects cycles atomically; the row update follows and is undone in memory if it fails
+        Set<String> previous = new HashSet<>(course.getPrerequisiteIds());
+        if (!prerequisiteIndex.setPrerequisites(id, prerequisiteIds)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("PREREQUISITE_CYCLE", "Prerequisites would form a cycle"));
+        }
+        try {
+            course.setPrerequisiteIds(new HashSet<>(prerequisiteIds));
+            courseRepository.save(course);
+        } catch (RuntimeException e) {
+            prerequisiteIndex.setPrerequisites(id, previous);
+            throw e;
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(
+                new CoursePrerequisites(id, prerequisiteIds), "Prerequisites updated successfully"));
+    }
+    
+    // Served from the computed gradebook; a course's rows are only re-read after a write to it
+    @GetMapping("/{id}/gradebook")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @QueryBudget(statements = 3)
+    public ResponseEntity<ApiResponse<Gradebook>> getGradebook(@PathVariable String id) {
+        if (!enrollmentService.courseExists(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("COURSE_NOT_FOUND", "Course not found"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(gradebookEngine.gradebook(id)));
+    }
+    
+    @PutMapping("/{id}/evaluation-items")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @QueryBudget(statements = 7)
+    public ResponseEntity<ApiResponse<Gradebook>> replaceEvaluationItems(
+            @PathVariable String id,
+            @RequestBody Map<String, List<Map<String, Object>>> request) {
+        
+        if (!enrollmentService.courseExists(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("COURSE_NOT_FOUND", "Course not found"));
+        }
+        
+        List<Gradebook.Item> items = new ArrayList<>();
+        for (Map<String, Object> item : request.getOrDefault("items", List.of())) {
+            Object name = item.get("name");
+            if (!(name instanceof String text) || text.isBlank() || text.length() > 50) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("INVALID_ITEM", "Item names are required and at most 50 characters"));
+            }
+            BigDecimal weight = toDecimal(item.get("weight"));
+            if (weight == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("INVALID_WEIGHTS", "Every item needs a numeric weight"));
+            }
+            items.add(new Gradebook.Item(item.get("id") instanceof String itemId ? itemId : null, text, weight));
+        }
+        if (!GradebookEngine.weightsValid(items.stream().map(Gradebook.Item::weight).toList())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_WEIGHTS", "Item weights must be positive and add up to 100"));
+        }
+        
+        if (!gradeService.replaceItems(id, items)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("ITEM_NOT_FOUND", "Unknown evaluation item for this course"));
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(gradebookEngine.gradebook(id), "Evaluation items updated"));
+    }
+    
+    @PutMapping("/{id}/grades")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @QueryBudget(statements = 5)
+    public ResponseEntity<ApiResponse<GradesRecorded>> recordGrades(
+            @PathVariable String id,
+            @RequestBody Map<String, List<Map<String, Object>>> request) {
+        
+        if (!enrollmentService.courseExists(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("COURSE_NOT_FOUND", "Course not found"));
+        }
+        
+        List<GradeService.GradeEntry> entries = new ArrayList<>();
+        for (Map<String, Object> grade : request.getOrDefault("grades", List.of())) {
+            BigDecimal score = toDecimal(grade.get("score"));
+            if (score == null || score.signum() < 0 || score.compareTo(GradeService.MAX_SCORE) > 0) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("INVALID_SCORE", "Scores must be between 0.0 and 5.0"));
+            }
+            entries.add(new GradeService.GradeEntry(
+                    String.valueOf(grade.get("studentId")), String.valueOf(grade.get("itemId")), score));
+        }
+        
+        List<GradeService.GradeEntry> rejected = gradeService.recordGrades(id, entries);
+        
+        GradesRecorded data = new GradesRecorded(id, entries.size() - rejected.size(), rejected.stream()
+                .map(entry -> new GradesRecorded.Grade(entry.studentId(), entry.itemId(), entry.score()))
+                .toList());
+        
+        return ResponseEntity.ok(ApiResponse.success(data, "Grades recorded"));
+    }
+    
+    @PostMapping("/{id}/enrollments:batch")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @QueryBudget(statements = 9)
+    public ResponseEntity<ApiResponse<CourseEnrollmentBatch>> enrollStudents(
+            @PathVariable String id,
+            @RequestBody Map<String, List<String>> request) {
         
-        dto.put("students", students);
-        dto.put("syllabus", course.getSyllabus());
+        List<String> studentIds = request.getOrDefault("studentIds", List.of());
+        EnrollmentService.BatchEnrollmentResult result = enrollmentService.enrollStudentsInCourse(id, studentIds);
+        if (!result.targetFound()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("COURSE_NOT_FOUND", "Course not found"));
+        }
         
-        Map<String, Object> schedule = new HashMap<>();
-        schedule.put("days", course.getScheduleDays());
-        schedule.put("time", course.getScheduleTime());
-        dto.put("schedule", schedule);
+        CourseEnrollmentBatch data = new CourseEnrollmentBatch(id, result.enrolled(), result.alreadyEnrolled(),
+                result.notFound(), result.noSeats(), result.conflicts(), result.missingPrerequisites());
         
-        return dto;
+        return ResponseEntity.ok(ApiResponse.success(data, "Batch enrollment processed"));
+    }
+    
+    // Candidate ids come from the trigram index; only the requested window is read from the DB
+    private Page<CourseSummary> searchCourses(String search, Pageable pageable) {
+        List<String> ids = searchIndexService.searchCourseIds(search);
+        if (ids == null) {
+            return courseRepository.searchCourseSummaries(search, pageable);
+        }
+        List<String> window = SearchIndexService.pageOf(ids, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findSummariesInOrder(window), pageable, ids.size());
+    }
+    
+    private Slice<CourseSummary> searchCoursesAfter(String search, String afterId, Pageable pageable) {
+        List<String> ids = searchIndexService.searchCourseIds(search);
+        if (ids == null) {
+            return courseRepository.searchCourseSummariesAfter(search, afterId, pageable);
+        }
+        List<String> window = SearchIndexService.sliceAfter(ids, afterId, pageable.getPageSize() + 1);
+        boolean hasNext = window.size() > pageable.getPageSize();
+        if (hasNext) {
+            window = window.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(findSummariesInOrder(window), pageable, hasNext);
+    }
+    
+    private List<CourseSummary> findSummariesInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, CourseSummary> byId = courseRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(CourseSummary::id, summary -> summary));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    private static void applySchedule(Course course, Map<String, Object> request) {
+        if (request.get("scheduleDays") instanceof List<?> days) {
+            course.setScheduleDays(days.stream().map(String::valueOf).collect(Collectors.toList()));
+        }
+        if (request.containsKey("scheduleTime")) {
+            course.setScheduleTime((String) request.get("scheduleTime"));
+        }
+    }
+    
+    // Returns false if weeklyHours is not a positive number or the period is too long
+    private static boolean applyWorkload(Course course, Map<String, Object> request) {
+        if (request.containsKey("period")) {
+            String period = (String) request.get("period");
+            if (period != null && period.length() > 20) {
+                return false;
+            }
+            course.setPeriod(period);
+        }
+        if (request.containsKey("weeklyHours")) {
+            Integer weeklyHours;
+            try {
+                weeklyHours = toInteger(request.get("weeklyHours"));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (weeklyHours != null && weeklyHours <= 0) {
+                return false;
+            }
+            course.setWeeklyHours(weeklyHours);
+        }
+        return true;
+    }
+    
+    private <T> ResponseEntity<ApiResponse<T>> teacherOverloaded() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("TEACHER_OVERLOADED",
+                        "Assignment would exceed " + workloadLedger.getMaxHours() + " weekly hours for the teacher in this period"));
+    }
+    
+    private static Integer toInteger(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Number number ? number.intValue() : Integer.valueOf(value.toString());
+    }
+    
+    private String currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.userId();
+        }
+        User currentUser = userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUser.getId();
+    }
+    
+    private CourseSummary mapCourseToDto(Course course, long studentsCount) {
+        User instructor = course.getInstructor();
+        return new CourseSummary(
+                course.getId(),
+                course.getName(),
+                course.getDescription(),
+                instructor != null ? instructor.getId() : null,
+                instructor != null ? instructor.getName() : null,
+                studentsCount,
+                course.getCapacity(),
+                course.getCreatedAt(),
+                course.getUpdatedAt()
+        );
+    }
+    
+    private CourseDetail mapCourseToDtoDetail(Course course) {
+        User instructor = course.getInstructor();
+        List<CourseDetail.Student> students = course.getStudents().stream()
+                .map(student -> new CourseDetail.Student(
+                        student.getId(),
+                        student.getName(),
+                        student.getEmail(),
+                        course.getCreatedAt()))
+                .collect(Collectors.toList());
+        
+        return new CourseDetail(
+                course.getId(),
+                course.getName(),
+                course.getDescription(),
+                instructor != null ? instructor.getId() : null,
+                instructor != null ? instructor.getName() : null,
+                students.size(),
+                course.getCapacity(),
+                course.getCreatedAt(),
+                course.getUpdatedAt(),
+                students,
+                course.getSyllabus(),
+                new CourseDetail.Schedule(course.getScheduleDays(), course.getScheduleTime())
+        );
+    }
+    
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.acas.controller;
+
+import com.acas.dto.ApiResponse;
+import com.acas.dto.report.CourseEnrollmentCount;
+import com.acas.dto.report.DashboardReport;
+import com.acas.dto.report.MonthlyEnrollmentCount;
+import com.acas.dto.report.TeacherLoad;
+import com.acas.dto.report.TeacherLoadReport;
+import com.acas.metrics.QueryBudget;
+import com.acas.model.User;
+import com.acas.repository.UserRepository;
+import com.acas.service.ReportCounters;
+import com.acas.workload.TeacherWorkloadLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard reports served from {@link ReportCounters} and {@link TeacherWorkloadLedger}; only
+ * authentication and teacher names touch the database.
+ */
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+public class ReportController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final ReportCounters reportCounters;
+    private final TeacherWorkloadLedger workloadLedger;
+    private final UserRepository userRepository;
+    
+    @GetMapping("/dashboard")
+    @QueryBudget(statements = 1)
+    public ResponseEntity<ApiResponse<DashboardReport>> getDashboard() {
+        DashboardReport report = new DashboardReport(
+                reportCounters.countUsers(User.UserRole.STUDENT),
+                reportCounters.countUsers(User.UserRole.TEACHER),
+                reportCounters.countCourses(),
+                reportCounters.countEnrollments(),
+                reportCounters.countEnrollments(YearMonth.now()),
+                reportCounters.topCourses(5)
+        );
+        
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+    
+    @GetMapping("/courses/top")
+    @QueryBudget(statements = 1)
+    public ResponseEntity<ApiResponse<List<CourseEnrollmentCount>>> getTopCourses(
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(reportCounters.topCourses(clamp(limit))));
+    }
+    
+    @GetMapping("/enrollments/monthly")
+    @QueryBudget(statements = 1)
+    public ResponseEntity<ApiResponse<List<MonthlyEnrollmentCount>>> getMonthlyEnrollments(
+            @RequestParam(defaultValue = "12") int months) {
+        
+        return ResponseEntity.ok(ApiResponse.success(reportCounters.monthly(clamp(months))));
+    }
+    
+    @GetMapping("/teacher-load")
+    @QueryBudget(statements = 2)
+    public ResponseEntity<ApiResponse<TeacherLoadReport>> getTeacherLoad(
+            @RequestParam(required = false) String period) {
+        
+        List<TeacherWorkloadLedger.PeriodLoad> loads = workloadLedger.loads(period);
+        Map<String, String> names = new HashMap<>();
+        if (!loads.isEmpty()) {
+            for (Object[] row : userRepository.findNamesByIds(
+                    loads.stream().map(TeacherWorkloadLedger.PeriodLoad::teacherId).collect(Collectors.toSet()))) {
+                names.put((String) row[0], (String) row[1]);
+            }
+        }
+        
+        int minHours = workloadLedger.getMinHours();
+        int maxHours = workloadLedger.getMaxHours();
+        List<TeacherLoad> teachers = loads.stream()
+                .map(load -> new TeacherLoad(
+                        load.teacherId(),
+                        names.get(load.teacherId()),
+                        load.period(),
+                        load.weeklyHours(),
+                        load.courses(),
+                        load.weeklyHours() < minHours ? TeacherLoad.Status.UNDERLOADED
+                                : load.weeklyHours() > maxHours ? TeacherLoad.Status.OVERLOADED
+                                : TeacherLoad.Status.WITHIN_BOUNDS))
+                .collect(Collectors.toList());
+        
+        return ResponseEntity.ok(ApiResponse.success(new TeacherLoadReport(minHours, maxHours, teachers)));
+    }
+    
+    private static int clamp(int value) {
+        return Math.max(1, Math.min(value, MAX_LIMIT));
+    }
+}
@@ -1,23 +1,56 @@
 package com.acas.controller;
 
+import com.acas.cache.CourseDetailCache;
 import com.acas.dto.ApiResponse;
 import com.acas.dto.PaginationDto;
-import com.acas.model.Course;
+import com.acas.dto.course.Gradebook;
+import com.acas.dto.student.EligibilityData;
+import com.acas.dto.student.ImportReport;
+import com.acas.dto.student.ScheduleConflictData;
+import com.acas.dto.student.StudentData;
+import com.acas.dto.student.StudentDetail;
+import com.acas.dto.student.StudentEnrollmentBatch;
+import com.acas.dto.student.StudentListData;
+import com.acas.dto.student.StudentSummary;
+import com.acas.grade.GradebookEngine;
+import com.acas.metrics.QueryBudget;
+import com.acas.model.Enrollment;
 import com.acas.model.User;
+import com.acas.prerequisite.PrerequisiteIndex;
 import com.acas.repository.CourseRepository;
 import com.acas.repository.UserRepository;
+import com.acas.schedule.ScheduleIndex;
+import com.acas.search.SearchIndexService;
+import com.acas.service.EnrollmentService;
+import com.acas.service.ExportService;
+import com.acas.service.ReportCounters;
+import com.acas.service.StudentImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,26 +61,44 @@ public class StudentController {
     
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final SearchIndexService searchIndexService;
+    private final EnrollmentService enrollmentService;
+    private final CourseDetailCache courseDetailCache;
+    private final ExportService exportService;
+    private final ReportCounters reportCounters;
+    private final ScheduleIndex scheduleIndex;
+    private final PrerequisiteIndex prerequisiteIndex;
+    private final GradebookEngine gradebookEngine;
+    private final StudentImportService studentImportService;
+    private final PasswordEncoder passwordEncoder;
     
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllStudents(
+    @QueryBudget(statements = 4)
+    public ResponseEntity<ApiResponse<StudentListData>> getAllStudents(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String courseId) {
+            @RequestParam(required = false) String courseId,
+            @RequestParam(required = false) String after) {
+        
+        if (after != null) {
+            return getStudentsAfter(after, limit, search);
+        }
         
         Pageable pageable = PageRequest.of(page - 1, limit);
         Page<User> studentPage;
         
         if (search != null && !search.isEmpty()) {
-            studentPage = userRepository.searchUsers(search, pageable);
+            studentPage = searchStudents(search, pageable);
         } else {
             studentPage = userRepository.findByRole(User.UserRole.STUDENT, pageable);
         }
         
-        List<Map<String, Object>> students = studentPage.getContent().stream()
-                .filter(user -> user.getRole() == User.UserRole.STUDENT)
-                .map(this::mapUserToStudent)
+        Map<String, List<String>> courseIdsByStudent = findEnrolledCourseIds(
+                studentPage.getContent().stream().map(User::getId).collect(Collectors.toList()));
+        
+        List<StudentSummary> students = studentPage.getContent().stream()
+                .map(user -> mapUserToStudent(user, courseIdsByStudent.getOrDefault(user.getId(), List.of())))
                 .collect(Collectors.toList());
         
         PaginationDto pagination = PaginationDto.of(
@@ -56,16 +107,53 @@ public class StudentController {
                 limit
         );
         
-        Map<String, Object> data = new HashMap<>();
-        data.put("students", students);
-        data.put("pagination", pagination);
+        return ResponseEntity.ok(ApiResponse.success(new StudentListData(students, pagination)));
+    }
+    
+    private ResponseEntity<ApiResponse<StudentListData>> getStudentsAfter(String after, int limit, String search) {
+        String afterId = PaginationDto.decodeCursor(after);
+        if (afterId == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_CURSOR", "Malformed pagination cursor"));
+        }
+        
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<User> studentSlice;
+        
+        if (search != null && !search.isEmpty()) {
+            studentSlice = searchStudentsAfter(search, afterId, pageable);
+        } else {
+            studentSlice = userRepository.findByRoleAfter(User.UserRole.STUDENT, afterId, pageable);
+        }
         
-        return ResponseEntity.ok(ApiResponse.success(data));
+        List<User> content = studentSlice.getContent();
+        Map<String, List<String>> courseIdsByStudent = findEnrolledCourseIds(
+                content.stream().map(User::getId).collect(Collectors.toList()));
+        
+        List<StudentSummary> students = content.stream()
+                .map(user -> mapUserToStudent(user, courseIdsByStudent.getOrDefault(user.getId(), List.of())))
+                .collect(Collectors.toList());
+        
+        PaginationDto pagination = PaginationDto.ofCursor(
+                limit,
+                studentSlice.hasNext(),
+                !PaginationDto.BEFORE_FIRST.equals(afterId),
+                content.isEmpty() ? null : content.get(content.size() - 1).getId()
+        );
+        
+        return ResponseEntity.ok(ApiResponse.success(new StudentListData(students, pagination)));
+    }
+    
+    @GetMapping("/export")
+    public void exportStudents(HttpServletResponse response) throws IOException {
+        response.setContentType(ExportService.NDJSON);
+        exportService.exportStudents(response.getOutputStream());
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getStudentById(@PathVariable String id) {
-        User student = userRepository.findById(id)
+    @QueryBudget(statements = 5)
+    public ResponseEntity<ApiResponse<StudentData<StudentDetail>>> getStudentById(@PathVariable String id) {
+        User student = userRepository.findWithEnrolledCoursesById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
         
         if (student.getRole() != User.UserRole.STUDENT) {
@@ -73,28 +161,68 @@ public class StudentController {
                     .body(ApiResponse.error("INVALID_ROLE", "User is not a student"));
         }
         
-        Map<String, Object> studentData = mapUserToStudentDetail(student);
-        
-        Map<String, Object> data = new HashMap<>();
-        data.put("student", studentData);
-        
-        return ResponseEntity.ok(ApiResponse.success(data));
+        return ResponseEntity.ok(ApiResponse.success(new StudentData<>(mapUserToStudentDetail(student))));
     }
     
     @PostMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> createStudent(@RequestBody Map<String, String> request) {
-        // Implementation for creating a student
-        // This would hash the password and create the user
+    @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 2)
+    public ResponseEntity<ApiResponse<StudentData<StudentSummary>>> createStudent(@RequestBody Map<String, String> request) {
+        String name = request.get("name");
+        String email = request.get("email");
+        String password = request.get("password");
+        if (name == null || name.isBlank() || email == null || email.isBlank() || password == null || password.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("VALIDATION_ERROR", "Name, email and password are required"));
+        }
+        if (userRepository.existsByEmail(email.trim())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("EMAIL_EXISTS", "Email already registered"));
+        }
         
-        Map<String, Object> data = new HashMap<>();
-        data.put("message", "Student creation endpoint - implement with UserService");
+        User student = new User();
+        student.setName(name.trim());
+        student.setEmail(email.trim());
+        student.setPassword(passwordEncoder.encode(password));
+        student.setRole(User.UserRole.STUDENT);
+        student.setStatus(User.UserStatus.ACTIVE);
+        userRepository.save(student);
+        searchIndexService.indexUser(student);
+        reportCounters.usersCreated(User.UserRole.STUDENT, 1);
         
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success(data, "Student created successfully"));
+                .body(ApiResponse.success(new StudentData<>(mapUserToStudent(student, List.of())), "Student created successfully"));
+    }
+    
+    // Raw CSV body, read as it arrives
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ImportReport>> importStudents(HttpServletRequest request) throws IOException {
+        return importCsv(request.getInputStream());
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ImportReport>> importStudents(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return importCsv(in);
+        }
+    }
+    
+    private ResponseEntity<ApiResponse<ImportReport>> importCsv(InputStream in) throws IOException {
+        ImportReport report;
+        try {
+            report = studentImportService.importCsv(in);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_CSV", e.getMessage()));
+        }
+        return ResponseEntity.ok(ApiResponse.success(report, "Student import processed"));
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> updateStudent(
+    @QueryBudget(statements = 4)
+    public ResponseEntity<ApiResponse<StudentData<StudentSummary>>> updateStudent(
             @PathVariable String id,
             @RequestBody Map<String, String> request) {
         
@@ -109,36 +237,61 @@ public class StudentController {
         }
         
         userRepository.save(student);
+        searchIndexService.indexUser(student);
         
-        Map<String, Object> studentData = mapUserToStudent(student);
-        Map<String, Object> data = new HashMap<>();
-        data.put("student", studentData);
+        List<String> courseIds = findEnrolledCourseIds(List.of(student.getId()))
+                .getOrDefault(student.getId(), List.of());
+        // Course rosters embed the student's name and email
+        courseIds.forEach(courseDetailCache::enrollmentChanged);
         
-        return ResponseEntity.ok(ApiResponse.success(data, "Student updated successfully"));
+        return ResponseEntity.ok(ApiResponse.success(
+                new StudentData<>(mapUserToStudent(student, courseIds)), "Student updated successfully"));
     }
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 4)
     public ResponseEntity<ApiResponse<Void>> deleteStudent(@PathVariable String id) {
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Student not found"));
+        List<String> courseIds = findEnrolledCourseIds(List.of(user.getId()))
+                .getOrDefault(user.getId(), List.of());
+        userRepository.delete(user);
+        reportCounters.userDeleted(user.getRole());
+        searchIndexService.removeUser(id);
+        // The student drops out of those course rosters
+        courseIds.forEach(courseDetailCache::enrollmentChanged);
         return ResponseEntity.ok(ApiResponse.success(null, "Student deleted successfully"));
     }
     
     @PostMapping("/{id}/enroll")
+    @QueryBudget(statements = 9)
     public ResponseEntity<ApiResponse<Map<String, Object>>> enrollStudent(
             @PathVariable String id,
             @RequestBody Map<String, String> request) {
         
         String courseId = request.get("courseId");
         
-        User student = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
-        
-        course.getStudents().add(student);
-        courseRepository.save(course);
+        EnrollmentService.BatchEnrollmentResult result =
+                enrollmentService.enrollStudentInCourses(id, List.of(courseId));
+        if (!result.targetFound()) {
+            throw new RuntimeException("Student not found");
+        }
+        if (!result.notFound().isEmpty()) {
+            throw new RuntimeException("Course not found");
+        }
+        if (!result.missingPrerequisites().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("PREREQUISITES_NOT_MET", "Student has not passed the course prerequisites"));
+        }
+        if (!result.conflicts().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("SCHEDULE_CONFLICT", "Course overlaps the student's schedule"));
+        }
+        if (!result.noSeats().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("COURSE_FULL", "Course has no seats available"));
+        }
         
         Map<String, Object> enrollment = new HashMap<>();
         enrollment.put("studentId", id);
@@ -152,52 +305,174 @@ public class StudentController {
     }
     
     @DeleteMapping("/{id}/enroll/{courseId}")
+    @QueryBudget(statements = 4)
     public ResponseEntity<ApiResponse<Void>> unenrollStudent(
             @PathVariable String id,
             @PathVariable String courseId) {
         
-        User student = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
+        enrollmentService.unenroll(id, courseId);
         
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+        return ResponseEntity.ok(ApiResponse.success(null, "Student unenrolled successfully"));
+    }
+    
+    @PutMapping("/{id}/enroll/{courseId}")
+    @QueryBudget(statements = 2)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> updateEnrollmentStatus(
+            @PathVariable String id,
+            @PathVariable String courseId,
+            @RequestBody Map<String, String> request) {
+        
+        Enrollment.EnrollmentStatus status;
+        try {
+            status = Enrollment.EnrollmentStatus.valueOf(String.valueOf(request.get("status")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("INVALID_STATUS", "Unknown enrollment status"));
+        }
         
-        course.getStudents().remove(student);
-        courseRepository.save(course);
+        if (!enrollmentService.updateStatus(id, courseId, status)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("ENROLLMENT_NOT_FOUND", "Student is not enrolled in this course"));
+        }
         
-        return ResponseEntity.ok(ApiResponse.success(null, "Student unenrolled successfully"));
+        Map<String, Object> data = new HashMap<>();
+        data.put("studentId", id);
+        data.put("courseId", courseId);
+        data.put("status", status);
+        
+        return ResponseEntity.ok(ApiResponse.success(data, "Enrollment status updated"));
     }
     
-    private Map<String, Object> mapUserToStudent(User user) {
-        Map<String, Object> student = new HashMap<>();
-        student.put("id", user.getId());
-        student.put("name", user.getName());
-        student.put("email", user.getEmail());
-        student.put("enrolledCourses", user.getEnrolledCourses().stream()
-                .map(Course::getId)
-                .collect(Collectors.toList()));
-        student.put("enrolledCoursesCount", user.getEnrolledCourses().size());
-        student.put("createdAt", user.getCreatedAt());
-        student.put("updatedAt", user.getUpdatedAt());
-        return student;
+    // Answered from the prerequisite index without touching the database
+    @GetMapping("/{id}/eligibility")
+    @QueryBudget(statements = 1)
+    public ResponseEntity<ApiResponse<EligibilityData>> getEligibility(
+            @PathVariable String id,
+            @RequestParam String courseId) {
+        
+        List<String> missing = prerequisiteIndex.missingPrerequisites(id, courseId);
+        return ResponseEntity.ok(ApiResponse.success(new EligibilityData(id, courseId, missing.isEmpty(), missing)));
     }
     
-    private Map<String, Object> mapUserToStudentDetail(User user) {
-        Map<String, Object> student = mapUserToStudent(user);
+    // Answered from the schedule index without touching the database
+    @GetMapping("/{id}/conflicts")
+    @QueryBudget(statements = 1)
+    public ResponseEntity<ApiResponse<ScheduleConflictData>> getScheduleConflicts(
+            @PathVariable String id,
+            @RequestParam String courseId) {
+        
+        if (!scheduleIndex.hasCourse(courseId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("COURSE_NOT_FOUND", "Course not found"));
+        }
+        
+        List<String> conflicts = scheduleIndex.conflicts(id, courseId);
+        return ResponseEntity.ok(ApiResponse.success(
+                new ScheduleConflictData(id, courseId, !conflicts.isEmpty(), conflicts)));
+    }
+    
+    @PostMapping("/{id}/enrollments:batch")
+    public ResponseEntity<ApiResponse<StudentEnrollmentBatch>> enrollStudentInCourses(
+            @PathVariable String id,
+            @RequestBody Map<String, List<String>> request) {
+        
+        List<String> courseIds = request.getOrDefault("courseIds", List.of());
+        EnrollmentService.BatchEnrollmentResult result = enrollmentService.enrollStudentInCourses(id, courseIds);
+        if (!result.targetFound()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("STUDENT_NOT_FOUND", "Student not found"));
+        }
         
-        List<Map<String, Object>> courses = user.getEnrolledCourses().stream()
+        StudentEnrollmentBatch data = new StudentEnrollmentBatch(id, result.enrolled(), result.alreadyEnrolled(),
+                result.notFound(), result.noSeats(), result.conflicts(), result.missingPrerequisites());
+        
+        return ResponseEntity.ok(ApiResponse.success(data, "Batch enrollment processed"));
+    }
+    
+    // Candidate ids come from the trigram index; only the requested window is read from the DB
+    private Page<User> searchStudents(String search, Pageable pageable) {
+        List<String> ids = searchIndexService.searchStudentIds(search);
+        if (ids == null) {
+            return userRepository.searchUsersByRole(User.UserRole.STUDENT, search, pageable);
+        }
+        List<String> window = SearchIndexService.pageOf(ids, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findUsersInOrder(window), pageable, ids.size());
+    }
+    
+    private Slice<User> searchStudentsAfter(String search, String afterId, Pageable pageable) {
+        List<String> ids = searchIndexService.searchStudentIds(search);
+        if (ids == null) {
+            return userRepository.searchUsersByRoleAfter(User.UserRole.STUDENT, search, afterId, pageable);
+        }
+        List<String> window = SearchIndexService.sliceAfter(ids, afterId, pageable.getPageSize() + 1);
+        boolean hasNext = window.size() > pageable.getPageSize();
+        if (hasNext) {
+            window = window.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(findUsersInOrder(window), pageable, hasNext);
+    }
+    
+    private List<User> findUsersInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, User> byId = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    private Map<String, List<String>> findEnrolledCourseIds(Collection<String> studentIds) {
+        if (studentIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<String>> courseIdsByStudent = new HashMap<>();
+        for (Object[] pair : courseRepository.findEnrollmentPairsByStudentIds(studentIds)) {
+            courseIdsByStudent.computeIfAbsent((String) pair[0], key -> new ArrayList<>()).add((String) pair[1]);
+        }
+        return courseIdsByStudent;
+    }
+    
+    private StudentSummary mapUserToStudent(User user, List<String> courseIds) {
+        return new StudentSummary(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                courseIds,
+                courseIds.size(),
+                user.getCreatedAt(),
+                user.getUpdatedAt()
+        );
+    }
+    
+    private StudentDetail mapUserToStudentDetail(User user) {
+        List<StudentDetail.Course> courses = user.getEnrolledCourses().stream()
+                .map(course -> new StudentDetail.Course(course.getId(), course.getName(), course.getCreatedAt()))
+                .collect(Collectors.toList());
+        
+        // Grades in courses missing from the gradebook cache are read in two queries
+        Map<String, Gradebook.StudentGrades> gradesByCourse = gradebookEngine.gradesFor(
+                user.getId(), courses.stream().map(StudentDetail.Course::id).collect(Collectors.toList()));
+        List<StudentDetail.Grade> grades = courses.stream()
+                .filter(course -> gradesByCourse.containsKey(course.id()))
                 .map(course -> {
-                    Map<String, Object> c = new HashMap<>();
-                    c.put("id", course.getId());
-                    c.put("name", course.getName());
-                    c.put("enrolledAt", course.getCreatedAt());
-                    return c;
+                    Gradebook.StudentGrades studentGrades = gradesByCourse.get(course.id());
+                    return new StudentDetail.Grade(course.id(), course.name(), studentGrades.runningGrade(),
+                            studentGrades.finalGrade(), studentGrades.complete());
                 })
                 .collect(Collectors.toList());
         
-        student.put("enrolledCourses", courses);
-        student.put("grades", List.of()); // Placeholder for grades
-        
-        return student;
+        return new StudentDetail(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                courses,
+                courses.size(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                grades
+        );
     }
 }
@@ -1,24 +1,63 @@
 package com.acas.dto;
 
+import com.acas.id.TimeOrderedIds;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginationDto {
-    private long total;
-    private int page;
+    
+    /** Keyset position of the first slice: every time-ordered id sorts after the nil UUID. */
+    public static final String BEFORE_FIRST = "00000000-0000-0000-0000-000000000000";
+    
+    private Long total;
+    private Integer page;
     private int limit;
-    private int totalPages;
+    private Integer totalPages;
     private boolean hasNext;
     private boolean hasPrev;
+    private String nextCursor;
     
     public static PaginationDto of(long total, int page, int limit) {
         int totalPages = (int) Math.ceil((double) total / limit);
         boolean hasNext = page < totalPages;
         boolean hasPrev = page > 1;
-        return new PaginationDto(total, page, limit, totalPages, hasNext, hasPrev);
+        return new PaginationDto(total, page, limit, totalPages, hasNext, hasPrev, null);
+    }
+    
+    // Keyset mode: no total is computed, only whether another slice follows
+    public static PaginationDto ofCursor(int limit, boolean hasNext, boolean hasPrev, String lastKey) {
+        String nextCursor = hasNext && lastKey != null ? encodeCursor(lastKey) : null;
+        return new PaginationDto(null, null, limit, null, hasNext, hasPrev, nextCursor);
+    }
+    
+    public static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes an opaque cursor back to its sort key. An empty cursor starts from the
+     * beginning ({@link #BEFORE_FIRST}); returns {@code null} when the cursor is malformed
+     * or does not decode to an id.
+     */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return BEFORE_FIRST;
+        }
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return TimeOrderedIds.isWellFormed(key) ? key : null;
     }
 }
@@ -0,0 +1,4 @@
+package com.acas.dto.course;
+
+public record CourseData<T>(T course) {
+}
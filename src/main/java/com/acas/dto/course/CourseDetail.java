@@ -0,0 +1,26 @@
+package com.acas.dto.course;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CourseDetail(
+        String id,
+        String name,
+        String description,
+        String instructorId,
+        String instructorName,
+        long studentsCount,
+        Integer capacity,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        List<Student> students,
+        String syllabus,
+        Schedule schedule
+) {
+    
+    public record Student(String id, String name, String email, LocalDateTime enrolledAt) {
+    }
+    
+    public record Schedule(List<String> days, String time) {
+    }
+}
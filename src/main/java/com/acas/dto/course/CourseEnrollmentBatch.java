@@ -0,0 +1,15 @@
+package com.acas.dto.course;
+
+import java.util.List;
+
+// Each list holds the student ids that ended up in that outcome
+public record CourseEnrollmentBatch(
+        String courseId,
+        List<String> enrolled,
+        List<String> alreadyEnrolled,
+        List<String> notFound,
+        List<String> noSeats,
+        List<String> conflicts,
+        List<String> missingPrerequisites
+) {
+}
@@ -0,0 +1,8 @@
+package com.acas.dto.course;
+
+import com.acas.dto.PaginationDto;
+
+import java.util.List;
+
+public record CourseListData(List<CourseSummary> courses, PaginationDto pagination) {
+}
@@ -0,0 +1,6 @@
+package com.acas.dto.course;
+
+import java.util.Set;
+
+public record CoursePrerequisites(String courseId, Set<String> prerequisiteIds) {
+}
@@ -0,0 +1,20 @@
+package com.acas.dto.course;
+
+import java.time.LocalDateTime;
+
+/**
+ * Course as shown in listings. Also used as a row projection: instructor name and
+ * enrollment count are resolved in the same SQL statement as the course itself.
+ */
+public record CourseSummary(
+        String id,
+        String name,
+        String description,
+        String instructorId,
+        String instructorName,
+        Long studentsCount,
+        Integer capacity,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
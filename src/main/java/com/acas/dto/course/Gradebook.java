@@ -0,0 +1,26 @@
+package com.acas.dto.course;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public record Gradebook(
+        String courseId,
+        List<Item> items,
+        boolean weightsValid,
+        List<StudentGrades> students
+) {
+    
+    public record Item(String id, String name, BigDecimal weight) {
+    }
+    
+    // runningGrade averages the graded items by weight; finalGrade is set once every item is graded
+    public record StudentGrades(
+            String studentId,
+            Map<String, Double> scores,
+            Double runningGrade,
+            Double finalGrade,
+            boolean complete
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.acas.dto.course;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record GradesRecorded(
+        String courseId,
+        int recorded,
+        List<Grade> rejected
+) {
+    
+    // A grade for a student not enrolled in the course or an item it does not have
+    public record Grade(String studentId, String itemId, BigDecimal score) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.acas.dto.export;
+
+public record EnrollmentExportRow(String courseId, String studentId) {
+}
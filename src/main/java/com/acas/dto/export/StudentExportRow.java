@@ -0,0 +1,15 @@
+package com.acas.dto.export;
+
+import com.acas.model.User;
+
+import java.time.LocalDateTime;
+
+public record StudentExportRow(
+        String id,
+        String name,
+        String email,
+        User.UserStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,4 @@
+package com.acas.dto.report;
+
+public record CourseEnrollmentCount(String id, String name, long enrollments) {
+}
@@ -0,0 +1,13 @@
+package com.acas.dto.report;
+
+import java.util.List;
+
+public record DashboardReport(
+        long totalStudents,
+        long totalTeachers,
+        long totalCourses,
+        long totalEnrollments,
+        long enrollmentsThisMonth,
+        List<CourseEnrollmentCount> topCourses
+) {
+}
@@ -0,0 +1,4 @@
+package com.acas.dto.report;
+
+public record MonthlyEnrollmentCount(String month, long enrollments) {
+}
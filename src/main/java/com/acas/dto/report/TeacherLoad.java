@@ -0,0 +1,15 @@
+package com.acas.dto.report;
+
+public record TeacherLoad(
+        String teacherId,
+        String teacherName,
+        String period,
+        int weeklyHours,
+        int courses,
+        Status status
+) {
+    
+    public enum Status {
+        UNDERLOADED, WITHIN_BOUNDS, OVERLOADED
+    }
+}
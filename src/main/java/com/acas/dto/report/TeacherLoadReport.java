@@ -0,0 +1,6 @@
+package com.acas.dto.report;
+
+import java.util.List;
+
+public record TeacherLoadReport(int minHours, int maxHours, List<TeacherLoad> teachers) {
+}
@@ -0,0 +1,6 @@
+package com.acas.dto.student;
+
+import java.util.List;
+
+public record EligibilityData(String studentId, String courseId, boolean eligible, List<String> missingPrerequisites) {
+}
@@ -0,0 +1,16 @@
+package com.acas.dto.student;
+
+import java.util.List;
+
+public record ImportReport(
+        long rows,
+        long imported,
+        long failed,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+    
+    // row is the line number in the file, the header being line 1
+    public record RowError(long row, String email, String message) {
+    }
+}
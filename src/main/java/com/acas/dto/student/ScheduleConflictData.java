@@ -0,0 +1,6 @@
+package com.acas.dto.student;
+
+import java.util.List;
+
+public record ScheduleConflictData(String studentId, String courseId, boolean conflict, List<String> conflictingCourseIds) {
+}
@@ -0,0 +1,4 @@
+package com.acas.dto.student;
+
+public record StudentData<T>(T student) {
+}
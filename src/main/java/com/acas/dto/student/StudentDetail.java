@@ -0,0 +1,22 @@
+package com.acas.dto.student;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record StudentDetail(
+        String id,
+        String name,
+        String email,
+        List<Course> enrolledCourses,
+        int enrolledCoursesCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        List<Grade> grades
+) {
+    
+    public record Course(String id, String name, LocalDateTime enrolledAt) {
+    }
+    
+    public record Grade(String courseId, String courseName, Double runningGrade, Double finalGrade, boolean complete) {
+    }
+}
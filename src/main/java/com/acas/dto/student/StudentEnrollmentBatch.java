@@ -0,0 +1,15 @@
+package com.acas.dto.student;
+
+import java.util.List;
+
+// Each list holds the course ids that ended up in that outcome
+public record StudentEnrollmentBatch(
+        String studentId,
+        List<String> enrolled,
+        List<String> alreadyEnrolled,
+        List<String> notFound,
+        List<String> noSeats,
+        List<String> conflicts,
+        List<String> missingPrerequisites
+) {
+}
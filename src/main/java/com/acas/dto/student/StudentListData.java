@@ -0,0 +1,8 @@
+package com.acas.dto.student;
+
+import com.acas.dto.PaginationDto;
+
+import java.util.List;
+
+public record StudentListData(List<StudentSummary> students, PaginationDto pagination) {
+}
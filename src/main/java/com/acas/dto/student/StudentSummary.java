@@ -0,0 +1,15 @@
+package com.acas.dto.student;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record StudentSummary(
+        String id,
+        String name,
+        String email,
+        List<String> enrolledCourses,
+        int enrolledCoursesCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,319 @@
+package com.acas.grade;
+
+import com.acas.dto.course.Gradebook;
+import com.acas.metrics.RequestQueryStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weighted running and final grades for every student of a course, computed from the
+ * course's evaluation items and one streamed scan of its enrollments joined to their
+ * grades. Results are kept per course until a write to its items, grades or enrollments
+ * commits. Several courses are computed in parallel on a dedicated fork-join pool,
+ * each leaf task holding one connection for the duration of its scan. One student's
+ * grades in courses not cached yet are read with two queries, whatever the number of
+ * courses, without computing those courses' whole gradebooks.
+ */
+@Component
+@Slf4j
+public class GradebookEngine {
+    
+    public static final BigDecimal FULL_WEIGHT = BigDecimal.valueOf(100);
+    
+    private static final String SELECT_ITEMS =
+            "SELECT id, name, weight FROM evaluation_items WHERE course_id = :courseId ORDER BY name, id";
+    private static final String SELECT_SCORES =
+            "SELECT e.student_id, g.item_id, g.score FROM enrollments e " +
+            "LEFT JOIN grades g ON g.enrollment_id = e.id " +
+            "WHERE e.course_id = :courseId AND e.status <> 'CANCELLED' ORDER BY e.student_id";
+    private static final String SELECT_COURSES_ITEMS =
+            "SELECT course_id, id, name, weight FROM evaluation_items WHERE course_id IN (:courseIds) ORDER BY name, id";
+    private static final String SELECT_STUDENT_SCORES =
+            "SELECT e.course_id, g.item_id, g.score FROM enrollments e " +
+            "LEFT JOIN grades g ON g.enrollment_id = e.id " +
+            "WHERE e.student_id = :studentId AND e.course_id IN (:courseIds) AND e.status <> 'CANCELLED'";
+    private static final int FETCH_SIZE = 500;
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final boolean warmUp;
+    private final ConcurrentHashMap<String, Computed> gradebooks = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a computation that raced with a write is not kept
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public GradebookEngine(DataSource dataSource,
+                           @Value("${grades.parallelism:4}") int parallelism,
+                           @Value("${grades.warm-up:true}") boolean warmUp) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.pool = new ForkJoinPool(parallelism);
+        this.warmUp = warmUp;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUp) {
+            // Each gradebook is computed on its first read instead
+            return;
+        }
+        long started = System.nanoTime();
+        List<String> courseIds = jdbcTemplate.getJdbcTemplate().queryForList("SELECT id FROM courses", String.class);
+        load(courseIds);
+        log.info("Gradebooks computed for {} courses in {} ms",
+                courseIds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+    
+    public Gradebook gradebook(String courseId) {
+        return load(List.of(courseId)).get(courseId).gradebook();
+    }
+    
+    /** The student's grades keyed by course id; courses the student has no grades row in are omitted. */
+    public Map<String, Gradebook.StudentGrades> gradesFor(String studentId, Collection<String> courseIds) {
+        Map<String, Gradebook.StudentGrades> grades = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String courseId : courseIds) {
+            Computed computed = gradebooks.get(courseId);
+            if (computed == null) {
+                missing.add(courseId);
+            } else if (computed.byStudent().containsKey(studentId)) {
+                grades.put(courseId, computed.byStudent().get(studentId));
+            }
+        }
+        if (!missing.isEmpty()) {
+            grades.putAll(computeFor(studentId, missing));
+        }
+        return grades;
+    }
+    
+    /** Drops the course's gradebook once the current transaction commits; it is recomputed on next read. */
+    public void invalidate(String courseId) {
+        Runnable drop = () -> {
+            invalidations.incrementAndGet();
+            gradebooks.remove(courseId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        } else {
+            drop.run();
+        }
+    }
+    
+    /** True when every weight is in (0, 100] and together they add up to exactly 100. */
+    public static boolean weightsValid(Collection<BigDecimal> weights) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal weight : weights) {
+            if (weight.signum() <= 0 || weight.compareTo(FULL_WEIGHT) > 0) {
+                return false;
+            }
+            total = total.add(weight);
+        }
+        return total.compareTo(FULL_WEIGHT) == 0;
+    }
+    
+    private Map<String, Computed> load(Collection<String> courseIds) {
+        Map<String, Computed> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String courseId : courseIds) {
+            Computed computed = gradebooks.get(courseId);
+            if (computed != null) {
+                result.put(courseId, computed);
+            } else {
+                missing.add(courseId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        
+        long version = invalidations.get();
+        // A single course is computed on the calling thread rather than handed to the pool
+        Map<String, Computed> fresh = missing.size() == 1
+                ? Map.of(missing.get(0), compute(missing.get(0)))
+                : pool.invoke(new CourseTask(missing, 0, missing.size(), RequestQueryStats.current()));
+        if (invalidations.get() == version) {
+            gradebooks.putAll(fresh);
+        }
+        result.putAll(fresh);
+        return result;
+    }
+    
+    private Computed compute(String courseId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("courseId", courseId);
+        List<Gradebook.Item> items = jdbcTemplate.query(SELECT_ITEMS, params,
+                (rs, rowNum) -> new Gradebook.Item(rs.getString(1), rs.getString(2), rs.getBigDecimal(3)));
+        boolean weightsValid = !items.isEmpty() && weightsValid(items.stream().map(Gradebook.Item::weight).toList());
+        
+        ScoreAccumulator accumulator = new ScoreAccumulator(items, weightsValid);
+        jdbcTemplate.query(SELECT_SCORES, params, accumulator);
+        List<Gradebook.StudentGrades> students = accumulator.finish();
+        
+        Map<String, Gradebook.StudentGrades> byStudent = new HashMap<>(students.size() * 2);
+        students.forEach(grades -> byStudent.put(grades.studentId(), grades));
+        return new Computed(new Gradebook(courseId, items, weightsValid, students), byStudent);
+    }
+    
+    // Only the student's rows are read, so the result is not cached as the courses' gradebooks
+    private Map<String, Gradebook.StudentGrades> computeFor(String studentId, List<String> courseIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("courseIds", courseIds).addValue("studentId", studentId);
+        Map<String, List<Gradebook.Item>> items = new HashMap<>();
+        jdbcTemplate.query(SELECT_COURSES_ITEMS, params, (RowCallbackHandler) rs -> items
+                .computeIfAbsent(rs.getString(1), key -> new ArrayList<>())
+                .add(new Gradebook.Item(rs.getString(2), rs.getString(3), rs.getBigDecimal(4))));
+        
+        Map<String, ScoreAccumulator> accumulators = new HashMap<>();
+        jdbcTemplate.query(SELECT_STUDENT_SCORES, params, (RowCallbackHandler) rs -> accumulators
+                .computeIfAbsent(rs.getString(1), courseId -> {
+                    List<Gradebook.Item> courseItems = items.getOrDefault(courseId, List.of());
+                    return new ScoreAccumulator(courseItems, !courseItems.isEmpty()
+                            && weightsValid(courseItems.stream().map(Gradebook.Item::weight).toList()));
+                })
+                .add(studentId, rs.getString(2), rs.getBigDecimal(3)));
+        
+        Map<String, Gradebook.StudentGrades> grades = new HashMap<>();
+        accumulators.forEach((courseId, accumulator) -> grades.put(courseId, accumulator.finish().get(0)));
+        return grades;
+    }
+    
+    private static double round(double grade) {
+        return Math.round(grade * 100) / 100.0;
+    }
+    
+    private record Computed(Gradebook gradebook, Map<String, Gradebook.StudentGrades> byStudent) {
+    }
+    
+    /** Splits the course list in halves until each leaf computes a single course. */
+    private final class CourseTask extends RecursiveTask<Map<String, Computed>> {
+        
+        private final List<String> courseIds;
+        private final int from;
+        private final int to;
+        // The request that started the computation, so its statements are counted against it
+        private final RequestQueryStats stats;
+        
+        CourseTask(List<String> courseIds, int from, int to, RequestQueryStats stats) {
+            this.courseIds = courseIds;
+            this.from = from;
+            this.to = to;
+            this.stats = stats;
+        }
+        
+        @Override
+        protected Map<String, Computed> compute() {
+            if (to - from == 1) {
+                Map<String, Computed> result = new HashMap<>();
+                String courseId = courseIds.get(from);
+                result.put(courseId, RequestQueryStats.callWith(stats, () -> GradebookEngine.this.compute(courseId)));
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            CourseTask left = new CourseTask(courseIds, from, middle, stats);
+            left.fork();
+            Map<String, Computed> result = new CourseTask(courseIds, middle, to, stats).compute();
+            result.putAll(left.join());
+            return result;
+        }
+    }
+    
+    /** Folds the student-ordered score rows into one StudentGrades per student as they stream in. */
+    private static final class ScoreAccumulator implements RowCallbackHandler {
+        
+        private final Map<String, Integer> positions = new HashMap<>();
+        private final String[] itemIds;
+        private final double[] weights;
+        private final boolean weightsValid;
+        private final List<Gradebook.StudentGrades> students = new ArrayList<>();
+        
+        private String studentId;
+        private Double[] scores;
+        
+        ScoreAccumulator(List<Gradebook.Item> items, boolean weightsValid) {
+            this.itemIds = new String[items.size()];
+            this.weights = new double[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                itemIds[i] = items.get(i).id();
+                weights[i] = items.get(i).weight().doubleValue();
+                positions.put(itemIds[i], i);
+            }
+            this.weightsValid = weightsValid;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            add(rs.getString(1), rs.getString(2), rs.getBigDecimal(3));
+        }
+        
+        // Rows of one student must arrive together; an enrollment without grades has a null item
+        void add(String student, String itemId, BigDecimal score) {
+            if (!student.equals(studentId)) {
+                flush();
+                studentId = student;
+                scores = new Double[itemIds.length];
+            }
+            Integer position = itemId != null ? positions.get(itemId) : null;
+            if (position != null) {
+                scores[position] = score.doubleValue();
+            }
+        }
+        
+        List<Gradebook.StudentGrades> finish() {
+            flush();
+            return students;
+        }
+        
+        private void flush() {
+            if (studentId == null) {
+                return;
+            }
+            Map<String, Double> byItem = new LinkedHashMap<>();
+            double weighted = 0;
+            double gradedWeight = 0;
+            for (int i = 0; i < itemIds.length; i++) {
+                if (scores[i] != null) {
+                    weighted += scores[i] * weights[i];
+                    gradedWeight += weights[i];
+                    byItem.put(itemIds[i], scores[i]);
+                }
+            }
+            boolean complete = itemIds.length > 0 && byItem.size() == itemIds.length;
+            Double running = gradedWeight > 0 ? round(weighted / gradedWeight) : null;
+            Double finalGrade = weightsValid && complete ? round(weighted / FULL_WEIGHT.doubleValue()) : null;
+            students.add(new Gradebook.StudentGrades(studentId, byItem, running, finalGrade, complete));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.acas.id;
+
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Maps a {@code String} id to the dialect's UUID column type: native {@code uuid} on
+ * PostgreSQL and H2, 16-byte binary elsewhere. Entities, DTOs and the API keep the string
+ * form; only the stored value is compact.
+ * <p>
+ * A string that is not a canonical lowercase UUID binds as the nil UUID, which no generated
+ * id equals, so looking up a malformed or differently cased id finds nothing, as it did
+ * with string keys.
+ */
+public class CompactUuidJavaType extends AbstractClassJavaType<String> {
+    
+    private static final UUID NO_MATCH = new UUID(0, 0);
+    
+    public CompactUuidJavaType() {
+        super(String.class);
+    }
+    
+    @Override
+    public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+        return indicators.getTypeConfiguration().getJdbcTypeRegistry().getDescriptor(SqlTypes.UUID);
+    }
+    
+    @Override
+    public String toString(String value) {
+        return value;
+    }
+    
+    @Override
+    public String fromString(CharSequence string) {
+        return string == null ? null : string.toString();
+    }
+    
+    @Override
+    public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (String.class.isAssignableFrom(type)) {
+            return type.cast(value);
+        }
+        UUID uuid = TimeOrderedIds.isWellFormed(value) ? UUID.fromString(value) : NO_MATCH;
+        if (UUID.class.isAssignableFrom(type)) {
+            return type.cast(uuid);
+        }
+        if (byte[].class.isAssignableFrom(type)) {
+            return type.cast(ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array());
+        }
+        throw unknownUnwrap(type);
+    }
+    
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid.toString();
+        }
+        if (value instanceof String string) {
+            return string;
+        }
+        if (value instanceof byte[] bytes && bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+        throw unknownWrap(value.getClass());
+    }
+}
@@ -0,0 +1,19 @@
+package com.acas.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the entity id with {@link TimeOrderedIds}. Used in place of
+ * {@code @GeneratedValue(strategy = GenerationType.UUID)}, together with
+ * {@code @JavaType(CompactUuidJavaType.class)} so the id is stored as a native UUID.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
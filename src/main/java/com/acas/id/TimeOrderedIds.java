@@ -0,0 +1,73 @@
+package com.acas.id;
+
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs in the version 7 layout: 48 bits of Unix milliseconds, a 12-bit
+ * sequence that keeps ids from one JVM strictly increasing within a millisecond, and 62
+ * random bits. New rows land at the right edge of the primary key index instead of at
+ * random pages, and ids still sort roughly by creation time across instances.
+ * <p>
+ * The random part comes from a {@link SecureRandom}, as with {@link UUID#randomUUID()},
+ * so ids stay as hard to guess as before.
+ */
+public final class TimeOrderedIds {
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Milliseconds shifted left by 12 plus the sequence; a full sequence borrows the next millisecond
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+    
+    private TimeOrderedIds() {
+    }
+    
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST_STAMP.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSigBits = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+    
+    /** A new id in the string form used throughout the API. */
+    public static String nextId() {
+        return next().toString();
+    }
+    
+    /**
+     * True for the canonical 36-character lowercase form, the one the database hands back
+     * and the one every in-memory index is keyed on. Anything else, including the same id
+     * in uppercase, is treated as matching no stored id.
+     */
+    public static boolean isWellFormed(String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /** The well-formed ids, in order; the rest could never match a row. */
+    public static Set<String> wellFormed(Collection<String> ids) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (isWellFormed(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+}
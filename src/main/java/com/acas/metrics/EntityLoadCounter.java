@@ -0,0 +1,29 @@
+package com.acas.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Session-factory-wide interceptor counting entity instances hydrated for the current request.
+ */
+@Component
+@ConditionalOnProperty(name = "metrics.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class EntityLoadCounter implements Interceptor, HibernatePropertiesCustomizer {
+    
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+    
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestQueryStats.entityLoaded();
+        return false;
+    }
+}
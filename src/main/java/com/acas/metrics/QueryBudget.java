@@ -0,0 +1,19 @@
+package com.acas.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a handler may issue per request, authentication included.
+ * Exceeding it is logged, or fails the request when {@code metrics.query-budget.enforce=true}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    
+    int statements();
+}
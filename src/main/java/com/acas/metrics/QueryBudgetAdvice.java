@@ -0,0 +1,62 @@
+package com.acas.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Checks the handler's {@link QueryBudget} once the controller has returned and, in dev,
+ * reports the request's query counts in response headers.
+ */
+@RestControllerAdvice
+@Slf4j
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+    
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ENTITIES_HEADER = "X-Entities-Loaded";
+    
+    @Value("${metrics.query-stats.header:false}")
+    private boolean exposeHeaders;
+    
+    @Value("${metrics.query-budget.enforce:false}")
+    private boolean enforce;
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return exposeHeaders || returnType.hasMethodAnnotation(QueryBudget.class);
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null) {
+            return body;
+        }
+        
+        if (exposeHeaders) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            response.getHeaders().set(ENTITIES_HEADER, String.valueOf(stats.getEntitiesLoaded()));
+        }
+        
+        QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+        if (budget != null && stats.getStatements() > budget.statements()) {
+            String message = String.format("%s %s issued %d SQL statements, budget is %d",
+                    request.getMethod(), request.getURI().getPath(), stats.getStatements(), budget.statements());
+            if (enforce) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+        
+        return body;
+    }
+}
@@ -0,0 +1,74 @@
+package com.acas.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SQL statements and entities loaded by the request running on the current thread.
+ * Started and cleared by {@link QueryStatsFilter}; work outside a request is not counted.
+ * Work the request hands to another thread is counted only if run through {@link #callWith}.
+ */
+public final class RequestQueryStats {
+    
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+    
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger entitiesLoaded = new AtomicInteger();
+    
+    private RequestQueryStats() {
+    }
+    
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+    
+    static void clear() {
+        CURRENT.remove();
+    }
+    
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+    
+    /** Runs work on the current thread counting toward the given request's stats, which may be null. */
+    public static <T> T callWith(RequestQueryStats stats, Supplier<T> work) {
+        RequestQueryStats previous = CURRENT.get();
+        if (stats == null || stats == previous) {
+            return work.get();
+        }
+        CURRENT.set(stats);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+    
+    static void statementPrepared() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.incrementAndGet();
+        }
+    }
+    
+    static void entityLoaded() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded.incrementAndGet();
+        }
+    }
+    
+    public int getStatements() {
+        return statements.get();
+    }
+    
+    public int getEntitiesLoaded() {
+        return entitiesLoaded.get();
+    }
+}
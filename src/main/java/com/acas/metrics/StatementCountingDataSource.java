@@ -0,0 +1,67 @@
+package com.acas.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Wraps the application DataSource so every statement prepared on a connection counts
+ * against the current request. Counting at the connection covers Hibernate and the
+ * JdbcTemplate paths alike; a JDBC batch counts once.
+ */
+@Component
+@ConditionalOnProperty(name = "metrics.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementCountingDataSource implements BeanPostProcessor {
+    
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+    
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (STATEMENT_FACTORIES.contains(method.getName())) {
+                        RequestQueryStats.statementPrepared();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+    
+    // DelegatingDataSource keeps the pool reachable for DataSourceUnwrapper (Hikari metrics)
+    private static final class CountingDataSource extends DelegatingDataSource {
+        
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(obtainTargetDataSource().getConnection());
+        }
+        
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(obtainTargetDataSource().getConnection(username, password));
+        }
+    }
+}
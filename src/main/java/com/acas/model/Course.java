@@ -1,9 +1,14 @@
 package com.acas.model;
 
+import com.acas.id.CompactUuidJavaType;
+import com.acas.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JavaType;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,6 +20,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +29,8 @@ import java.util.Set;
 public class Course {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JavaType(CompactUuidJavaType.class)
     private String id;
     
     @Column(nullable = false)
@@ -36,6 +44,7 @@ public class Course {
     private User instructor;
     
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "course_enrollments",
         joinColumns = @JoinColumn(name = "course_id"),
@@ -47,12 +56,30 @@ public class Course {
     private String syllabus;
     
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "course_schedule_days", joinColumns = @JoinColumn(name = "course_id"))
     @Column(name = "schedule_day")
     private List<String> scheduleDays;
     
     private String scheduleTime;
     
+    // Direct prerequisites by course id; the transitive closure lives in PrerequisiteIndex
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "course_prerequisites", joinColumns = @JoinColumn(name = "course_id"))
+    @Column(name = "prerequisite_id")
+    @JavaType(CompactUuidJavaType.class)
+    private Set<String> prerequisiteIds = new HashSet<>();
+    
+    // Weekly contact hours in an academic period (e.g. "2025-1"); with both set, they count toward the instructor's load
+    private Integer weeklyHours;
+    
+    @Column(length = 20)
+    private String period;
+    
+    // Maximum number of enrolled students; null means unlimited
+    private Integer capacity;
+    
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
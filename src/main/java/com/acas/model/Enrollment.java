@@ -1,9 +1,14 @@
 package com.acas.model;
 
+import com.acas.id.CompactUuidJavaType;
+import com.acas.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -18,18 +23,29 @@ import java.time.LocalDateTime;
 public class Enrollment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JavaType(CompactUuidJavaType.class)
     private String id;
     
     @ManyToOne
     @JoinColumn(name = "student_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User student;
     
     @ManyToOne
     @JoinColumn(name = "course_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Course course;
     
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime enrolledAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EnrollmentStatus status = EnrollmentStatus.ENROLLED;
+    
+    public enum EnrollmentStatus {
+        ENROLLED, PASSED, FAILED, CANCELLED
+    }
 }
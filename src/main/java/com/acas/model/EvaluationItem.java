@@ -0,0 +1,38 @@
+package com.acas.model;
+
+import com.acas.id.CompactUuidJavaType;
+import com.acas.id.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "evaluation_items")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationItem {
+    
+    @Id
+    @TimeOrderedId
+    @JavaType(CompactUuidJavaType.class)
+    private String id;
+    
+    @ManyToOne
+    @JoinColumn(name = "course_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Course course;
+    
+    @Column(nullable = false, length = 50)
+    private String name;
+    
+    // Percentage of the final grade; the items of a course add up to 100
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal weight;
+}
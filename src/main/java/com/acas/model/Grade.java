@@ -0,0 +1,40 @@
+package com.acas.model;
+
+import com.acas.id.CompactUuidJavaType;
+import com.acas.id.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "grades", uniqueConstraints = @UniqueConstraint(columnNames = {"enrollment_id", "item_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Grade {
+    
+    @Id
+    @TimeOrderedId
+    @JavaType(CompactUuidJavaType.class)
+    private String id;
+    
+    @ManyToOne
+    @JoinColumn(name = "enrollment_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Enrollment enrollment;
+    
+    @ManyToOne
+    @JoinColumn(name = "item_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private EvaluationItem item;
+    
+    // 0.00 to 5.00
+    @Column(nullable = false, precision = 3, scale = 2)
+    private BigDecimal score;
+}
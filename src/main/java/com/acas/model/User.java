@@ -1,9 +1,15 @@
 package com.acas.model;
 
+import com.acas.id.CompactUuidJavaType;
+import com.acas.id.TimeOrderedId;
+import com.acas.security.PrincipalCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JavaType;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,14 +20,17 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheListener.class})
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JavaType(CompactUuidJavaType.class)
     private String id;
     
     @Column(unique = true, nullable = false)
@@ -52,6 +61,7 @@ public class User {
     private LocalDateTime lastLogin;
     
     @ManyToMany(mappedBy = "students")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Course> enrolledCourses = new HashSet<>();
     
     @OneToMany(mappedBy = "instructor")
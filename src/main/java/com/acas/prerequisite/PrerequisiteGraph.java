@@ -0,0 +1,184 @@
+package com.acas.prerequisite;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prerequisite DAG over dense course indexes with a precomputed transitive closure per
+ * course. Checking eligibility is one containment test of the closure against the
+ * student's passed-courses bitset. Changing a course's prerequisites recomputes only that
+ * course and the courses that (transitively) require it.
+ */
+public class PrerequisiteGraph {
+    
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<BitSet> direct = new ArrayList<>();
+    private final List<BitSet> closures = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /** Dense index for the course, assigning one on first sight. */
+    public int indexOf(String courseId) {
+        lock.readLock().lock();
+        try {
+            Integer index = indexes.get(courseId);
+            if (index != null) {
+                return index;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            return indexInternal(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces the direct prerequisites of a course. Returns false, leaving the graph
+     * unchanged, if that would introduce a cycle.
+     */
+    public boolean setPrerequisites(String courseId, Collection<String> prerequisiteIds) {
+        lock.writeLock().lock();
+        try {
+            int course = indexInternal(courseId);
+            BitSet edges = new BitSet();
+            for (String prerequisiteId : prerequisiteIds) {
+                int prerequisite = indexInternal(prerequisiteId);
+                if (prerequisite == course || closures.get(prerequisite).get(course)) {
+                    return false;
+                }
+                edges.set(prerequisite);
+            }
+            direct.set(course, edges);
+            
+            // The course itself and everything whose closure contains it
+            BitSet dirty = new BitSet();
+            dirty.set(course);
+            for (int i = 0; i < closures.size(); i++) {
+                if (closures.get(i).get(course)) {
+                    dirty.set(i);
+                }
+            }
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                recompute(i, dirty);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces every course's prerequisites at once and computes every closure in a single
+     * pass. Indexes already assigned are kept, so bitsets built against them stay valid.
+     */
+    public void load(Map<String, ? extends Collection<String>> prerequisitesByCourse) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                direct.set(i, new BitSet());
+            }
+            prerequisitesByCourse.forEach((courseId, prerequisiteIds) -> {
+                BitSet edges = new BitSet();
+                for (String prerequisiteId : prerequisiteIds) {
+                    edges.set(indexInternal(prerequisiteId));
+                }
+                direct.set(indexInternal(courseId), edges);
+            });
+            BitSet dirty = new BitSet();
+            dirty.set(0, ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                recompute(i, dirty);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Drops the course's own edges and every edge to it, recomputing the courses that required it. */
+    public void remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer index = indexes.get(courseId);
+            if (index == null) {
+                return;
+            }
+            int course = index;
+            direct.set(course, new BitSet());
+            BitSet dirty = new BitSet();
+            dirty.set(course);
+            for (int i = 0; i < closures.size(); i++) {
+                if (closures.get(i).get(course)) {
+                    dirty.set(i);
+                    direct.get(i).clear(course);
+                }
+            }
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                recompute(i, dirty);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Course ids in the closure of {@code courseId} that are not set in {@code passed}. */
+    public List<String> missing(String courseId, BitSet passed) {
+        lock.readLock().lock();
+        try {
+            Integer course = indexes.get(courseId);
+            if (course == null) {
+                return List.of();
+            }
+            BitSet missing = (BitSet) closures.get(course).clone();
+            missing.andNot(passed);
+            if (missing.isEmpty()) {
+                return List.of();
+            }
+            List<String> courseIds = new ArrayList<>(missing.cardinality());
+            for (int i = missing.nextSetBit(0); i >= 0; i = missing.nextSetBit(i + 1)) {
+                courseIds.add(ids.get(i));
+            }
+            return courseIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int indexInternal(String courseId) {
+        Integer index = indexes.get(courseId);
+        if (index != null) {
+            return index;
+        }
+        int next = ids.size();
+        indexes.put(courseId, next);
+        ids.add(courseId);
+        direct.add(new BitSet());
+        closures.add(new BitSet());
+        return next;
+    }
+    
+    // Prerequisites are finished before dependents; the graph is acyclic, so this terminates
+    private void recompute(int course, BitSet dirty) {
+        if (!dirty.get(course)) {
+            return;
+        }
+        dirty.clear(course);
+        BitSet closure = new BitSet();
+        BitSet edges = direct.get(course);
+        for (int p = edges.nextSetBit(0); p >= 0; p = edges.nextSetBit(p + 1)) {
+            recompute(p, dirty);
+            closure.set(p);
+            closure.or(closures.get(p));
+        }
+        closures.set(course, closure);
+    }
+}
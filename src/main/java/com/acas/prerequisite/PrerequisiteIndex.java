@@ -0,0 +1,116 @@
+package com.acas.prerequisite;
+
+import com.acas.repository.CourseRepository;
+import com.acas.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prerequisite closures plus the set of passed courses per student, so enrollment can
+ * validate eligibility without walking the prerequisite chain in SQL. Maintained by the
+ * course controller and the enrollment service, and rebuilt from the database at startup
+ * and on a fixed interval. A rebuild that overlaps a change is dropped; the next one
+ * catches up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrerequisiteIndex {
+    
+    private static final BitSet NONE = new BitSet();
+    
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    
+    private final PrerequisiteGraph graph = new PrerequisiteGraph();
+    // Bitsets are replaced, never mutated, so readers need no lock
+    private final ConcurrentHashMap<String, BitSet> passed = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${prerequisites.rebuild-interval-ms:600000}",
+               fixedDelayString = "${prerequisites.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long version = changes.get();
+        Map<String, Set<String>> prerequisites = new HashMap<>();
+        for (Object[] row : courseRepository.findAllPrerequisitePairs()) {
+            prerequisites.computeIfAbsent((String) row[0], key -> new HashSet<>()).add((String) row[1]);
+        }
+        List<Object[]> passedPairs = enrollmentRepository.findPassedPairs();
+        if (changes.get() != version) {
+            log.debug("Prerequisite index rebuild dropped: changed while reading");
+            return;
+        }
+        graph.load(prerequisites);
+        
+        // Replaced per student rather than cleared, so readers never see an empty set in between
+        Map<String, BitSet> fresh = new HashMap<>();
+        for (Object[] row : passedPairs) {
+            int course = graph.indexOf((String) row[1]);
+            fresh.compute((String) row[0], (id, current) -> with(current, course, true));
+        }
+        passed.keySet().retainAll(fresh.keySet());
+        passed.putAll(fresh);
+        
+        log.info("Prerequisite index built: {} courses with prerequisites, {} students with passed courses",
+                prerequisites.size(), passed.size());
+    }
+    
+    /** Prerequisites (direct or transitive) of the course that the student has not passed. */
+    public List<String> missingPrerequisites(String studentId, String courseId) {
+        return graph.missing(courseId, passed.getOrDefault(studentId, NONE));
+    }
+    
+    /** Returns false, leaving the graph unchanged, if the new prerequisites would form a cycle. */
+    public boolean setPrerequisites(String courseId, Collection<String> prerequisiteIds) {
+        changes.incrementAndGet();
+        return graph.setPrerequisites(courseId, prerequisiteIds);
+    }
+    
+    /** Removes the course and drops it from the prerequisites of the courses that required it. */
+    public void removeCourse(String courseId) {
+        changes.incrementAndGet();
+        graph.remove(courseId);
+    }
+    
+    /** Applies a pass/fail outcome once the updating transaction commits. */
+    public void outcomeChanged(String studentId, String courseId, boolean hasPassed) {
+        Runnable update = () -> {
+            changes.incrementAndGet();
+            int course = graph.indexOf(courseId);
+            passed.compute(studentId, (id, current) -> with(current, course, hasPassed));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+    
+    private static BitSet with(BitSet current, int course, boolean set) {
+        BitSet next = current != null ? (BitSet) current.clone() : new BitSet();
+        next.set(course, set);
+        return next.isEmpty() ? null : next;
+    }
+}
@@ -1,18 +1,42 @@
 package com.acas.repository;
 
+import com.acas.dto.course.CourseSummary;
+import com.acas.dto.export.EnrollmentExportRow;
 import com.acas.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, String> {
     
+    // Lookups for responses built after the transaction has ended (open-in-view is off in the virtual profile)
+    @EntityGraph(attributePaths = {"students", "scheduleDays"})
+    Optional<Course> findWithStudentsById(String id);
+    
+    @EntityGraph(attributePaths = "prerequisiteIds")
+    Optional<Course> findWithPrerequisitesById(String id);
+    
+    // For updates, which only need the enrollment count rather than the roster
+    @EntityGraph(attributePaths = "scheduleDays")
+    Optional<Course> findWithScheduleById(String id);
+    
+    @Query("SELECT COUNT(s) FROM Course c JOIN c.students s WHERE c.id = :id")
+    long countStudentsById(@Param("id") String id);
+    
     @Query("SELECT c FROM Course c WHERE c.instructor.id = :instructorId")
     Page<Course> findByInstructorId(@Param("instructorId") String instructorId, Pageable pageable);
     
@@ -24,6 +48,95 @@ public interface CourseRepository extends JpaRepository<Course, String> {
            "LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<Course> searchCourses(@Param("search") String search, Pageable pageable);
     
-    @Query("SELECT c FROM Course c ORDER BY SIZE(c.students) DESC")
-    List<Course> findTopCoursesByEnrollment(Pageable pageable);
+    String SUMMARY_SELECT = "SELECT new com.acas.dto.course.CourseSummary(" +
+           "c.id, c.name, c.description, i.id, i.name, " +
+           "(SELECT COUNT(s.id) FROM Course c2 JOIN c2.students s WHERE c2.id = c.id), " +
+           "c.capacity, c.createdAt, c.updatedAt) " +
+           "FROM Course c LEFT JOIN c.instructor i ";
+    
+    @Query(value = SUMMARY_SELECT,
+           countQuery = "SELECT COUNT(c) FROM Course c")
+    Page<CourseSummary> findAllSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE i.id = :instructorId",
+           countQuery = "SELECT COUNT(c) FROM Course c WHERE c.instructor.id = :instructorId")
+    Page<CourseSummary> findSummariesByInstructorId(@Param("instructorId") String instructorId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "JOIN c.students st WHERE st.id = :studentId",
+           countQuery = "SELECT COUNT(c) FROM Course c JOIN c.students st WHERE st.id = :studentId")
+    Page<CourseSummary> findSummariesByStudentId(@Param("studentId") String studentId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE " +
+                   "LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                   "LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))",
+           countQuery = "SELECT COUNT(c) FROM Course c WHERE " +
+                        "LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                        "LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<CourseSummary> searchCourseSummaries(@Param("search") String search, Pageable pageable);
+    
+    // Keyset variants: ordered by id, resume after the last id of the previous slice, no count query
+    @Query(SUMMARY_SELECT + "WHERE c.id > :after ORDER BY c.id")
+    Slice<CourseSummary> findSummariesAfter(@Param("after") String after, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE i.id = :instructorId AND c.id > :after ORDER BY c.id")
+    Slice<CourseSummary> findSummariesByInstructorIdAfter(@Param("instructorId") String instructorId,
+                                                          @Param("after") String after, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "JOIN c.students st WHERE st.id = :studentId AND c.id > :after ORDER BY c.id")
+    Slice<CourseSummary> findSummariesByStudentIdAfter(@Param("studentId") String studentId,
+                                                       @Param("after") String after, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE (" +
+           "LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND c.id > :after ORDER BY c.id")
+    Slice<CourseSummary> searchCourseSummariesAfter(@Param("search") String search,
+                                                    @Param("after") String after, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE c.id IN :ids")
+    List<CourseSummary> findSummariesByIds(@Param("ids") Collection<String> ids);
+    
+    long countByIdIn(Collection<String> ids);
+    
+    // (id, name, description) rows used to build the search index
+    @Query("SELECT c.id, c.name, c.description FROM Course c")
+    List<Object[]> findAllSearchFields();
+    
+    // (id, instructor_id, period, weekly_hours) for every course that counts toward a teacher's load.
+    // Id columns are native UUIDs; native queries cast them so rows carry the same strings as the entities.
+    @Query(value = "SELECT CAST(c.id AS VARCHAR), CAST(c.instructor_id AS VARCHAR), c.period, c.weekly_hours " +
+                   "FROM courses c WHERE c.instructor_id IS NOT NULL AND c.period IS NOT NULL AND c.weekly_hours IS NOT NULL",
+           nativeQuery = true)
+    List<Object[]> findTeachingAssignments();
+    
+    // (course_id, prerequisite_id) edges used to build the prerequisite graph
+    @Query(value = "SELECT CAST(cp.course_id AS VARCHAR), CAST(cp.prerequisite_id AS VARCHAR) FROM course_prerequisites cp",
+           nativeQuery = true)
+    List<Object[]> findAllPrerequisitePairs();
+    
+    // (id, schedule_time, schedule_day) rows, one per schedule day, used to build the schedule index
+    @Query(value = "SELECT CAST(c.id AS VARCHAR), c.schedule_time, d.schedule_day FROM courses c " +
+                   "LEFT JOIN course_schedule_days d ON d.course_id = c.id",
+           nativeQuery = true)
+    List<Object[]> findAllScheduleFields();
+    
+    @Query(SUMMARY_SELECT + "ORDER BY c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<CourseSummary> streamSummaries();
+    
+    @Query("SELECT new com.acas.dto.export.EnrollmentExportRow(c.id, s.id) FROM Course c JOIN c.students s ORDER BY c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<EnrollmentExportRow> streamEnrollmentRows();
+    
+    // Returns (student_id, course_id) pairs straight from the join table
+    @Query(value = "SELECT CAST(ce.student_id AS VARCHAR), CAST(ce.course_id AS VARCHAR) FROM course_enrollments ce " +
+                   "WHERE ce.student_id IN (:studentIds)",
+           nativeQuery = true)
+    List<Object[]> findEnrollmentPairsByStudentIds(@Param("studentIds") Collection<String> studentIds);
+    
+    // Returns (id, name, enrollment count) for every course, in one grouped pass over the join table
+    @Query(value = "SELECT CAST(c.id AS VARCHAR), c.name, COUNT(ce.student_id) FROM courses c " +
+                   "LEFT JOIN course_enrollments ce ON ce.course_id = c.id GROUP BY c.id, c.name",
+           nativeQuery = true)
+    List<Object[]> findEnrollmentCounts();
 }
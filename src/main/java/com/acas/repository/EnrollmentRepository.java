@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,8 +20,15 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, String>
     
     boolean existsByStudentIdAndCourseId(String studentId, String courseId);
     
-    @Query("SELECT COUNT(e) FROM Enrollment e WHERE " +
-           "FUNCTION('MONTH', e.enrolledAt) = FUNCTION('MONTH', CURRENT_DATE) AND " +
-           "FUNCTION('YEAR', e.enrolledAt) = FUNCTION('YEAR', CURRENT_DATE)")
-    long countEnrollmentsThisMonth();
+    // Returns (student_id, course_id) for every passed enrollment
+    @Query(value = "SELECT CAST(e.student_id AS VARCHAR), CAST(e.course_id AS VARCHAR) FROM enrollments e " +
+                   "WHERE e.status = 'PASSED'",
+           nativeQuery = true)
+    List<Object[]> findPassedPairs();
+    
+    // Returns (year, month, count) for every month that has enrollments
+    @Query(value = "SELECT EXTRACT(YEAR FROM e.enrolled_at), EXTRACT(MONTH FROM e.enrolled_at), COUNT(*) " +
+                   "FROM enrollments e GROUP BY EXTRACT(YEAR FROM e.enrolled_at), EXTRACT(MONTH FROM e.enrolled_at)",
+           nativeQuery = true)
+    List<Object[]> countByMonth();
 }
@@ -1,20 +1,42 @@
 package com.acas.repository;
 
+import com.acas.dto.export.StudentExportRow;
 import com.acas.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+    // Email -> id lookups are served from the query cache; the entity comes from the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     
+    @EntityGraph(attributePaths = "enrolledCourses")
+    Optional<User> findWithEnrolledCoursesById(String id);
+    
+    // (id, name) for the given users
+    @Query("SELECT u.id, u.name FROM User u WHERE u.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<String> ids);
+    
+    // Bulk form of existsByEmail: which of the given emails are already registered
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
     @Query("SELECT u FROM User u WHERE u.role = :role")
     Page<User> findByRole(@Param("role") User.UserRole role, Pageable pageable);
     
@@ -26,6 +48,33 @@ public interface UserRepository extends JpaRepository<User, String> {
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<User> searchUsers(@Param("search") String search, Pageable pageable);
     
+    @Query("SELECT u FROM User u WHERE u.role = :role AND (" +
+           "LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<User> searchUsersByRole(@Param("role") User.UserRole role, @Param("search") String search, Pageable pageable);
+    
+    @Query("SELECT u FROM User u WHERE u.role = :role AND u.id > :after ORDER BY u.id")
+    Slice<User> findByRoleAfter(@Param("role") User.UserRole role, @Param("after") String after, Pageable pageable);
+    
+    @Query("SELECT u FROM User u WHERE u.role = :role AND (" +
+           "LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND u.id > :after ORDER BY u.id")
+    Slice<User> searchUsersByRoleAfter(@Param("role") User.UserRole role, @Param("search") String search,
+                                       @Param("after") String after, Pageable pageable);
+    
+    // (id, name, email) rows used to build the search index
+    @Query("SELECT u.id, u.name, u.email FROM User u WHERE u.role = :role")
+    List<Object[]> findSearchFieldsByRole(@Param("role") User.UserRole role);
+    
+    @Query("SELECT new com.acas.dto.export.StudentExportRow(u.id, u.name, u.email, u.status, u.createdAt, u.updatedAt) " +
+           "FROM User u WHERE u.role = :role ORDER BY u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<StudentExportRow> streamExportRowsByRole(@Param("role") User.UserRole role);
+    
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") User.UserRole role);
+    
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
 }
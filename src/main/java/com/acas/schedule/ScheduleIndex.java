@@ -0,0 +1,234 @@
+package com.acas.schedule;
+
+import com.acas.dto.export.EnrollmentExportRow;
+import com.acas.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Compiled weekly schedules per course and the union timetable per student, so schedule
+ * conflicts are checked with a handful of word ANDs instead of an overlap query.
+ * <p>
+ * Enrollments claim their slots when admitted, not after commit, so two concurrent
+ * requests cannot both book overlapping courses for one student. A rolled-back
+ * enrollment gives its slots back. The enrollment service and the course controller keep
+ * it in sync; it is also rebuilt from the database at startup and on a fixed interval.
+ * A rebuild leaves alone the courses and students that changed while it was reading, and
+ * students with claims still in flight, so it never drops a claim the database does not
+ * show yet.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleIndex {
+    
+    private final CourseRepository courseRepository;
+    
+    private final ConcurrentHashMap<String, TimeSlots> courses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timetable> students = new ConcurrentHashMap<>();
+    // Claims whose transaction has not completed, per student; only changed while computing that student's entry
+    private final ConcurrentHashMap<String, Integer> pendingClaims = new ConcurrentHashMap<>();
+    // Non-null while a rebuild runs
+    private volatile Set<String> touchedCourses;
+    private volatile Set<String> touchedStudents;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${schedule.rebuild-interval-ms:600000}",
+               fixedDelayString = "${schedule.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Set<String> changedCourses = ConcurrentHashMap.newKeySet();
+        Set<String> changedStudents = ConcurrentHashMap.newKeySet();
+        touchedCourses = changedCourses;
+        touchedStudents = changedStudents;
+        try {
+            swapIn(changedCourses, changedStudents);
+        } finally {
+            touchedCourses = null;
+            touchedStudents = null;
+        }
+        log.info("Schedule index built: {} courses, {} student timetables", courses.size(), students.size());
+    }
+    
+    // Entries are replaced one by one rather than cleared, so readers never see an empty index
+    private void swapIn(Set<String> changedCourses, Set<String> changedStudents) {
+        Map<String, String> times = new HashMap<>();
+        Map<String, List<String>> days = new HashMap<>();
+        for (Object[] row : courseRepository.findAllScheduleFields()) {
+            String courseId = (String) row[0];
+            times.put(courseId, (String) row[1]);
+            List<String> courseDays = days.computeIfAbsent(courseId, key -> new ArrayList<>());
+            if (row[2] != null) {
+                courseDays.add((String) row[2]);
+            }
+        }
+        Map<String, Set<String>> enrolled = new HashMap<>();
+        try (Stream<EnrollmentExportRow> rows = courseRepository.streamEnrollmentRows()) {
+            rows.forEach(row -> enrolled.computeIfAbsent(row.studentId(), key -> new HashSet<>()).add(row.courseId()));
+        }
+        
+        Set<String> courseIds = new HashSet<>(courses.keySet());
+        courseIds.addAll(times.keySet());
+        for (String courseId : courseIds) {
+            courses.compute(courseId, (id, current) -> changedCourses.contains(id) ? current
+                    : times.containsKey(id) ? TimeSlots.compile(days.get(id), times.get(id)) : null);
+        }
+        Set<String> studentIds = new HashSet<>(students.keySet());
+        studentIds.addAll(enrolled.keySet());
+        for (String studentId : studentIds) {
+            students.compute(studentId, (id, current) -> changedStudents.contains(id) || pendingClaims.containsKey(id)
+                    ? current
+                    : enrolled.containsKey(id) ? timetableOf(enrolled.get(id)) : null);
+        }
+    }
+    
+    public boolean hasCourse(String courseId) {
+        return courses.containsKey(courseId);
+    }
+    
+    /**
+     * Adds the course to the student's timetable unless it overlaps a course already in it.
+     * Inside a transaction the claim is undone if the transaction does not commit.
+     */
+    public boolean tryClaim(String studentId, String courseId) {
+        TimeSlots slots = courses.getOrDefault(courseId, TimeSlots.EMPTY);
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        boolean[] claimed = {false};
+        students.compute(studentId, (id, timetable) -> {
+            Timetable current = timetable != null ? timetable : Timetable.NONE;
+            if (current.slots().intersects(slots)) {
+                return current;
+            }
+            claimed[0] = true;
+            mark(touchedStudents, id);
+            if (transactional) {
+                pendingClaims.merge(id, 1, Integer::sum);
+            }
+            return current.with(courseId, slots);
+        });
+        if (claimed[0] && transactional) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    students.compute(studentId, (id, timetable) -> {
+                        pendingClaims.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null);
+                        mark(touchedStudents, id);
+                        return status == STATUS_COMMITTED || timetable == null ? timetable : without(timetable, courseId);
+                    });
+                }
+            });
+        }
+        return claimed[0];
+    }
+    
+    /** Gives back a claim that was not used, e.g. because the course had no seats left. */
+    public void release(String studentId, String courseId) {
+        students.computeIfPresent(studentId, (id, timetable) -> {
+            mark(touchedStudents, id);
+            return without(timetable, courseId);
+        });
+    }
+    
+    /** Removes an enrollment from the timetable once the deleting transaction commits. */
+    public void unenrolled(String studentId, String courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(studentId, courseId);
+                }
+            });
+        } else {
+            release(studentId, courseId);
+        }
+    }
+    
+    /** Courses in the student's timetable that overlap the given course. */
+    public List<String> conflicts(String studentId, String courseId) {
+        TimeSlots slots = courses.getOrDefault(courseId, TimeSlots.EMPTY);
+        Timetable timetable = students.get(studentId);
+        if (timetable == null || !timetable.slots().intersects(slots)) {
+            return List.of();
+        }
+        List<String> overlapping = new ArrayList<>();
+        for (String enrolledId : timetable.courseIds()) {
+            if (!enrolledId.equals(courseId) && courses.getOrDefault(enrolledId, TimeSlots.EMPTY).intersects(slots)) {
+                overlapping.add(enrolledId);
+            }
+        }
+        return overlapping;
+    }
+    
+    /** Recompiles a course's schedule and the timetables of students holding it. */
+    public void updateCourse(String courseId, Collection<String> days, String time) {
+        mark(touchedCourses, courseId);
+        TimeSlots slots = TimeSlots.compile(days, time);
+        TimeSlots previous = courses.put(courseId, slots);
+        if (previous != null && !previous.equals(slots)) {
+            refreshTimetablesWith(courseId);
+        }
+    }
+    
+    public void removeCourse(String courseId) {
+        mark(touchedCourses, courseId);
+        if (courses.remove(courseId) != null) {
+            refreshTimetablesWith(courseId);
+        }
+    }
+    
+    // Schedule changes are rare, so a scan over all timetables is acceptable here
+    private void refreshTimetablesWith(String courseId) {
+        for (String studentId : students.keySet()) {
+            students.computeIfPresent(studentId, (id, timetable) ->
+                    timetable.courseIds().contains(courseId) ? timetableOf(timetable.courseIds()) : timetable);
+        }
+    }
+    
+    private Timetable without(Timetable timetable, String courseId) {
+        Set<String> remaining = new HashSet<>(timetable.courseIds());
+        remaining.remove(courseId);
+        return remaining.isEmpty() ? null : timetableOf(remaining);
+    }
+    
+    private static void mark(Set<String> touched, String id) {
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+    
+    private Timetable timetableOf(Collection<String> courseIds) {
+        TimeSlots union = TimeSlots.EMPTY;
+        for (String courseId : courseIds) {
+            union = union.union(courses.getOrDefault(courseId, TimeSlots.EMPTY));
+        }
+        return new Timetable(Set.copyOf(courseIds), union);
+    }
+    
+    private record Timetable(Set<String> courseIds, TimeSlots slots) {
+        
+        static final Timetable NONE = new Timetable(Set.of(), TimeSlots.EMPTY);
+        
+        Timetable with(String courseId, TimeSlots courseSlots) {
+            Set<String> courseIds = new HashSet<>(this.courseIds);
+            courseIds.add(courseId);
+            return new Timetable(Set.copyOf(courseIds), slots.union(courseSlots));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.acas.schedule;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A weekly timetable as a bitset of 15-minute slots: 7 days x 96 slots = 672 bits in 11
+ * words. Overlap between two timetables is a word-wise AND. Instances are immutable.
+ */
+public final class TimeSlots {
+    
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+    
+    public static final TimeSlots EMPTY = new TimeSlots(new long[WORDS]);
+    
+    // Keyed by the first three letters of the accent-stripped day name, English or Spanish
+    private static final Map<String, Integer> DAYS = Map.ofEntries(
+            Map.entry("mon", 0), Map.entry("lun", 0),
+            Map.entry("tue", 1), Map.entry("mar", 1),
+            Map.entry("wed", 2), Map.entry("mie", 2),
+            Map.entry("thu", 3), Map.entry("jue", 3),
+            Map.entry("fri", 4), Map.entry("vie", 4),
+            Map.entry("sat", 5), Map.entry("sab", 5),
+            Map.entry("sun", 6), Map.entry("dom", 6));
+    
+    // "08:00-10:00", "8:30 am - 10 am", "14:00 a 16:00"
+    private static final Pattern TIME_RANGE = Pattern.compile(
+            "(\\d{1,2})(?::(\\d{2}))?\\s*([ap]\\.?m\\.?)?\\s*(?:-|–|to|a)\\s*(\\d{1,2})(?::(\\d{2}))?\\s*([ap]\\.?m\\.?)?",
+            Pattern.CASE_INSENSITIVE);
+    
+    private final long[] words;
+    
+    private TimeSlots(long[] words) {
+        this.words = words;
+    }
+    
+    /**
+     * Compiles a course's schedule. Unrecognized days are skipped; a missing or unparsable
+     * time range yields {@link #EMPTY}, which never conflicts with anything.
+     */
+    public static TimeSlots compile(Collection<String> days, String timeRange) {
+        if (days == null || days.isEmpty() || timeRange == null) {
+            return EMPTY;
+        }
+        Matcher matcher = TIME_RANGE.matcher(timeRange.trim());
+        if (!matcher.find()) {
+            return EMPTY;
+        }
+        // A single am/pm marker applies to both ends, unless the range would then run backwards:
+        // "11 - 1 pm" is 11 am to 1 pm and "11 am - 1" is 11 am to 1 pm
+        String startMeridiem = matcher.group(3) != null ? matcher.group(3) : matcher.group(6);
+        String endMeridiem = matcher.group(6) != null ? matcher.group(6) : matcher.group(3);
+        int start = minutes(matcher.group(1), matcher.group(2), startMeridiem);
+        int end = minutes(matcher.group(4), matcher.group(5), endMeridiem);
+        if (start >= 0 && end >= 0 && end <= start) {
+            if (matcher.group(3) == null && matcher.group(6) != null) {
+                start = minutes(matcher.group(1), matcher.group(2), opposite(endMeridiem));
+            } else if (matcher.group(3) != null && matcher.group(6) == null) {
+                end = minutes(matcher.group(4), matcher.group(5), opposite(startMeridiem));
+            }
+        }
+        if (start < 0 || end < 0 || end <= start) {
+            return EMPTY;
+        }
+        int firstSlot = start / SLOT_MINUTES;
+        int endSlot = (end + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        
+        long[] words = new long[WORDS];
+        for (String day : days) {
+            Integer index = dayIndex(day);
+            if (index != null) {
+                int base = index * SLOTS_PER_DAY;
+                for (int slot = base + firstSlot; slot < base + endSlot; slot++) {
+                    words[slot >>> 6] |= 1L << slot;
+                }
+            }
+        }
+        return new TimeSlots(words);
+    }
+    
+    public boolean intersects(TimeSlots other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public TimeSlots union(TimeSlots other) {
+        long[] merged = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            merged[i] = words[i] | other.words[i];
+        }
+        return new TimeSlots(merged);
+    }
+    
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TimeSlots other && Arrays.equals(words, other.words);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+    
+    private static Integer dayIndex(String day) {
+        if (day == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(day.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        return normalized.length() < 3 ? null : DAYS.get(normalized.substring(0, 3));
+    }
+    
+    private static String opposite(String meridiem) {
+        return Character.toLowerCase(meridiem.charAt(0)) == 'p' ? "am" : "pm";
+    }
+    
+    // Minutes since midnight, or -1 when out of range
+    private static int minutes(String hours, String mins, String meridiem) {
+        int hour = Integer.parseInt(hours);
+        int minute = mins != null ? Integer.parseInt(mins) : 0;
+        if (meridiem != null) {
+            if (hour < 1 || hour > 12) {
+                return -1;
+            }
+            boolean pm = Character.toLowerCase(meridiem.charAt(0)) == 'p';
+            hour = hour % 12 + (pm ? 12 : 0);
+        }
+        if (hour > 24 || minute > 59 || (hour == 24 && minute > 0)) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+}
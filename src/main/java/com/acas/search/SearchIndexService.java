@@ -0,0 +1,136 @@
+package com.acas.search;
+
+import com.acas.model.Course;
+import com.acas.model.User;
+import com.acas.repository.CourseRepository;
+import com.acas.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the course and student trigram indexes in sync with the database. The indexes
+ * are maintained by the controllers on every write and rebuilt from the database at
+ * startup and on a fixed interval, which picks up rows written by other instances or
+ * through JDBC. A rebuild fills new indexes off to the side and swaps them in; entries
+ * written while it was reading are carried over from the live indexes first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+    
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    // Writes and the final carry-over of a rebuild synchronize on this; searches read the fields lock-free
+    private volatile TrigramIndex courseIndex = new TrigramIndex();
+    private volatile TrigramIndex studentIndex = new TrigramIndex();
+    // Ids written while a rebuild reads the database; null when no rebuild runs
+    private Set<String> touchedCourses;
+    private Set<String> touchedStudents;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.rebuild-interval-ms:600000}",
+               fixedDelayString = "${search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                touchedCourses = new HashSet<>();
+                touchedStudents = new HashSet<>();
+            }
+            TrigramIndex courses = new TrigramIndex();
+            for (Object[] row : courseRepository.findAllSearchFields()) {
+                courses.put((String) row[0], (String) row[1], (String) row[2]);
+            }
+            TrigramIndex students = new TrigramIndex();
+            for (Object[] row : userRepository.findSearchFieldsByRole(User.UserRole.STUDENT)) {
+                students.put((String) row[0], (String) row[1], (String) row[2]);
+            }
+            
+            synchronized (this) {
+                touchedCourses.forEach(id -> courses.copyEntry(courseIndex, id));
+                touchedStudents.forEach(id -> students.copyEntry(studentIndex, id));
+                courseIndex = courses;
+                studentIndex = students;
+            }
+            log.info("Search indexes built: {} courses, {} students", courses.size(), students.size());
+        } finally {
+            synchronized (this) {
+                touchedCourses = null;
+                touchedStudents = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+    
+    public synchronized void indexCourse(Course course) {
+        courseIndex.put(course.getId(), course.getName(), course.getDescription());
+        mark(touchedCourses, course.getId());
+    }
+    
+    public synchronized void removeCourse(String courseId) {
+        courseIndex.remove(courseId);
+        mark(touchedCourses, courseId);
+    }
+    
+    public synchronized void indexUser(User user) {
+        if (user.getRole() == User.UserRole.STUDENT) {
+            studentIndex.put(user.getId(), user.getName(), user.getEmail());
+        } else {
+            studentIndex.remove(user.getId());
+        }
+        mark(touchedStudents, user.getId());
+    }
+    
+    public synchronized void indexStudent(String id, String name, String email) {
+        studentIndex.put(id, name, email);
+        mark(touchedStudents, id);
+    }
+    
+    public synchronized void removeUser(String userId) {
+        studentIndex.remove(userId);
+        mark(touchedStudents, userId);
+    }
+    
+    /** Sorted ids of courses whose name or description contains the term, or null if the term is too short. */
+    public List<String> searchCourseIds(String term) {
+        return courseIndex.search(term);
+    }
+    
+    /** Sorted ids of students whose name or email contains the term, or null if the term is too short. */
+    public List<String> searchStudentIds(String term) {
+        return studentIndex.search(term);
+    }
+    
+    public static List<String> pageOf(List<String> sortedIds, long offset, int size) {
+        if (offset >= sortedIds.size()) {
+            return List.of();
+        }
+        int from = (int) offset;
+        return sortedIds.subList(from, Math.min(sortedIds.size(), from + size));
+    }
+    
+    private static void mark(Set<String> touched, String id) {
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+    
+    public static List<String> sliceAfter(List<String> sortedIds, String afterId, int size) {
+        int position = Collections.binarySearch(sortedIds, afterId);
+        return pageOf(sortedIds, position >= 0 ? position + 1 : -position - 1, size);
+    }
+}
@@ -0,0 +1,179 @@
+package com.acas.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from character trigrams to document ids. Answers
+ * case-insensitive substring queries: the posting lists of the query trigrams are
+ * intersected and the surviving candidates are confirmed against the stored text.
+ */
+public class TrigramIndex {
+    
+    public static final int GRAM = 3;
+    
+    // Separates indexed fields so a match never spans two of them
+    private static final char FIELD_SEPARATOR = '\u0000';
+    
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final Map<String, String> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void put(String id, String... fields) {
+        String document = normalize(fields);
+        lock.writeLock().lock();
+        try {
+            putInternal(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Makes the entry for the id match the one in {@code source}, removing it if the source has none. */
+    public void copyEntry(TrigramIndex source, String id) {
+        String document;
+        source.lock.readLock().lock();
+        try {
+            document = source.documents.get(id);
+        } finally {
+            source.lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (document != null) {
+                putInternal(id, document);
+            } else {
+                removeInternal(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the ids of all documents containing {@code term}, sorted ascending, or
+     * {@code null} when the term is shorter than a trigram and cannot be served.
+     */
+    public List<String> search(String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        if (needle.length() < GRAM) {
+            return null;
+        }
+        
+        lock.readLock().lock();
+        try {
+            List<Set<String>> lists = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                Set<String> posting = postings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            
+            List<String> matches = new ArrayList<>();
+            for (String id : lists.get(0)) {
+                if (containsInAll(lists, id) && documents.get(id).contains(needle)) {
+                    matches.add(id);
+                }
+            }
+            matches.sort(null);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static boolean containsInAll(List<Set<String>> lists, String id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void putInternal(String id, String document) {
+        removeInternal(id);
+        documents.put(id, document);
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+    
+    private void removeInternal(String id) {
+        String previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<String> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+    
+    private static String normalize(String... fields) {
+        StringBuilder document = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                document.append(field.toLowerCase(Locale.ROOT));
+            }
+            document.append(FIELD_SEPARATOR);
+        }
+        return document.toString();
+    }
+    
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM);
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,28 @@
+package com.acas.security;
+
+import com.acas.model.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * UserDetails that keeps the loaded account, so callers of the authentication
+ * manager can use it without reading the user again.
+ */
+public class AccountUserDetails extends org.springframework.security.core.userdetails.User {
+    
+    private final transient User account;
+    
+    public AccountUserDetails(User account) {
+        super(
+                account.getEmail(),
+                account.getPassword(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + account.getRole().name()))
+        );
+        this.account = account;
+    }
+    
+    public User getAccount() {
+        return account;
+    }
+}
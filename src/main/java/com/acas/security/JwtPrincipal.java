@@ -0,0 +1,15 @@
+package com.acas.security;
+
+import java.security.Principal;
+
+/**
+ * Authenticated principal built from verified token claims. {@link #getName()} returns
+ * the email so existing {@code authentication.getName()} callers keep working.
+ */
+public record JwtPrincipal(String userId, String email, String role) implements Principal {
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,12 +1,15 @@
 package com.acas.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
@@ -21,28 +25,34 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     
     private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
+    
+    // "claims" builds the authentication from the verified token, "lookup" loads the user on every request
+    @Value("${jwt.auth-mode:claims}")
+    private String authMode;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         
         String jwt = extractJwtFromCookie(request);
-        String username = null;
+        VerifiedClaims claims = null;
         
         if (jwt != null) {
             try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
+                claims = jwtUtil.verify(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
                 logger.error("JWT Token extraction failed", e);
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.subject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = "lookup".equalsIgnoreCase(authMode)
+                    ? authenticateByLookup(claims)
+                    : authenticateFromClaims(claims);
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -50,6 +60,36 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
     
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(VerifiedClaims claims) {
+        String userId = claims.userId();
+        String role = claims.role();
+        if (userId == null || role == null) {
+            return null;
+        }
+        
+        // Reject tokens issued before a role/status change or for a removed account
+        PrincipalCache.CachedPrincipal current = principalCache.get(userId);
+        if (current == null || !current.isActive()
+                || !current.email().equals(claims.subject())
+                || !current.role().name().equals(role)) {
+            return null;
+        }
+        
+        JwtPrincipal principal = new JwtPrincipal(userId, claims.subject(), role);
+        return new UsernamePasswordAuthenticationToken(
+                principal, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+    
+    private UsernamePasswordAuthenticationToken authenticateByLookup(VerifiedClaims claims) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.subject());
+        
+        if (jwtUtil.validateToken(claims, userDetails)) {
+            return new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+        }
+        return null;
+    }
+    
     private String extractJwtFromCookie(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
@@ -0,0 +1,208 @@
+package com.acas.security;
+
+import com.acas.dto.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate-limits {@code POST /auth/login} per client IP and per email before the request
+ * reaches BCrypt. The login body is small, so it is read once here to find the email and
+ * replayed to the controller. Rejected attempts get 429 with a Retry-After header.
+ * Only failed logins count against an email: the token is given back when the login
+ * succeeds, so the account owner signing in never uses up their own allowance.
+ * <p>
+ * The IP is the servlet remote address, which reflects the client behind a proxy through
+ * {@code server.forward-headers-strategy}. Many students can share one campus NAT address,
+ * so the IP limit is set well above what one person would need.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(name = "auth.throttle.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LoginThrottleFilter extends OncePerRequestFilter {
+    
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final int MAX_BODY_BYTES = 4096;
+    
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byEmail;
+    private final ObjectMapper objectMapper;
+    private final Counter ipRejections;
+    private final Counter emailRejections;
+    
+    public LoginThrottleFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${auth.throttle.ip.capacity:200}") int ipCapacity,
+            @Value("${auth.throttle.ip.refill-per-minute:600}") double ipRefillPerMinute,
+            @Value("${auth.throttle.email.capacity:5}") int emailCapacity,
+            @Value("${auth.throttle.email.refill-per-minute:5}") double emailRefillPerMinute,
+            @Value("${auth.throttle.max-keys:100000}") int maxKeys,
+            @Value("${auth.throttle.stripes:64}") int stripes) {
+        this.objectMapper = objectMapper;
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPerMinute / 60, maxKeys, stripes);
+        this.byEmail = new TokenBucketLimiter(emailCapacity, emailRefillPerMinute / 60, maxKeys, stripes);
+        
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.buckets", byIp, TokenBucketLimiter::size)
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.buckets", byEmail, TokenBucketLimiter::size)
+                .tag("key", "email")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        
+        // The IP bucket is checked first so floods are turned away without reading the body
+        long wait = byIp.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            ipRejections.increment();
+            reject(response, wait);
+            return;
+        }
+        
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            write(response, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE", "Login request body is too large");
+            return;
+        }
+        
+        String email = emailOf(body);
+        if (email != null) {
+            wait = byEmail.tryAcquire(email);
+            if (wait > 0) {
+                emailRejections.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+        
+        chain.doFilter(new CachedBodyRequest(request, body), response);
+        if (email != null && response.getStatus() < 400) {
+            byEmail.refund(email);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${auth.throttle.evict-interval-ms:60000}")
+    public void evictIdle() {
+        int removed = byIp.evictIdle() + byEmail.evictIdle();
+        if (removed > 0) {
+            log.debug("Login throttle evicted {} idle buckets", removed);
+        }
+    }
+    
+    // Malformed bodies fall through to the controller, which rejects them without hashing
+    private String emailOf(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader("Retry-After", Long.toString(seconds));
+        write(response, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_ATTEMPTS", "Too many login attempts, try again later");
+    }
+    
+    private void write(HttpServletResponse response, HttpStatus status, String code, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(code, message));
+    }
+    
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.acas.security;
+
+import com.acas.cache.BoundedTtlCache;
+import com.acas.model.User;
+import com.acas.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the security-relevant state of a user (email, role, status) keyed by user id,
+ * so that claims-based authentication can check a token against the current account
+ * state without hitting the database on every request. Ids with no user are remembered
+ * for a shorter time, so tokens of deleted accounts do not reach the database either.
+ * <p>
+ * Entries are dropped by {@link PrincipalCacheListener} whenever a user row is written
+ * through JPA, once the write commits.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<String, CachedPrincipal> cache;
+    private final BoundedTtlCache<String, Boolean> missing;
+    
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl-ms:300000}") long ttlMillis,
+                          @Value("${security.principal-cache.negative-ttl-ms:30000}") long negativeTtlMillis) {
+        this.userRepository = userRepository;
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMillis);
+        this.missing = new BoundedTtlCache<>(maxSize, negativeTtlMillis);
+    }
+    
+    public CachedPrincipal get(String userId) {
+        CachedPrincipal cached = cache.getIfPresent(userId);
+        if (cached != null || missing.getIfPresent(userId) != null) {
+            return cached;
+        }
+        CachedPrincipal loaded = userRepository.findById(userId).map(CachedPrincipal::of).orElse(null);
+        if (loaded != null) {
+            cache.put(userId, loaded);
+        } else {
+            missing.put(userId, Boolean.TRUE);
+        }
+        return loaded;
+    }
+    
+    /** Drops the user's entry, after the current transaction commits if there is one. */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        Runnable drop = () -> {
+            cache.invalidate(userId);
+            missing.invalidate(userId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        } else {
+            drop.run();
+        }
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+        missing.invalidateAll();
+    }
+    
+    public int size() {
+        return cache.size();
+    }
+    
+    public record CachedPrincipal(String id, String email, User.UserRole role, User.UserStatus status) {
+        
+        static CachedPrincipal of(User user) {
+            return new CachedPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getStatus());
+        }
+        
+        public boolean isActive() {
+            return status == User.UserStatus.ACTIVE;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.acas.security;
+
+import com.acas.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops a user's {@link PrincipalCache} entry on every JPA write to the row, so role,
+ * status and email changes take effect whichever code path makes them.
+ */
+@Component
+public class PrincipalCacheListener {
+    
+    // Resolved on first use: Hibernate creates the listener while the repositories the cache needs are still being built
+    private final ObjectProvider<PrincipalCache> principalCache;
+    
+    public PrincipalCacheListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        principalCache.getObject().invalidate(user.getId());
+    }
+}
@@ -0,0 +1,147 @@
+package com.acas.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by string, split into lock stripes so unrelated keys never contend.
+ * Each stripe is an access-ordered map capped at its share of {@code maxKeys}; when full,
+ * the least recently used key is dropped. A bucket left idle long enough to refill
+ * completely carries no state, so {@link #evictIdle()} removes it without changing behaviour.
+ */
+public class TokenBucketLimiter {
+    
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long fullRefillNanos;
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+    
+    public TokenBucketLimiter(int capacity, double refillPerSecond, int maxKeys, int stripeCount) {
+        if (capacity <= 0 || refillPerSecond <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, refill rate and maxKeys must be positive");
+        }
+        int count = 1;
+        while (count < stripeCount) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        int perStripe = Math.max(1, maxKeys / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.mask = count - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+    }
+    
+    /**
+     * Takes one token for the key. Returns 0 if one was available, otherwise the
+     * nanoseconds until the next token.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                trackedKeys.incrementAndGet();
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+                bucket.updatedAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+    
+    /** Gives back a token taken for the key, e.g. when the attempt it paid for should not count. */
+    public void refund(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+    
+    /** Removes buckets that have been idle long enough to be full again. Returns how many. */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                // Access order puts the longest idle buckets first
+                Iterator<Bucket> iterator = stripe.buckets.values().iterator();
+                while (iterator.hasNext()) {
+                    Bucket bucket = iterator.next();
+                    if (now - bucket.updatedAt < fullRefillNanos) {
+                        break;
+                    }
+                    iterator.remove();
+                    trackedKeys.decrementAndGet();
+                    removed++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return removed;
+    }
+    
+    /** Number of keys currently tracked. */
+    public int size() {
+        return trackedKeys.get();
+    }
+    
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+    
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+        
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedAt = now;
+        }
+    }
+    
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Bucket> buckets;
+        
+        private Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    if (size() > maxKeys) {
+                        trackedKeys.decrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.acas.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been checked.
+ */
+public record VerifiedClaims(String subject, String userId, String role, Date expiration) {
+    
+    static VerifiedClaims from(Claims claims) {
+        return new VerifiedClaims(
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                claims.get("role", String.class),
+                claims.getExpiration()
+        );
+    }
+    
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,365 @@
+package com.acas.service;
+
+import com.acas.cache.CourseDetailCache;
+import com.acas.cache.EntityCacheEvictor;
+import com.acas.grade.GradebookEngine;
+import com.acas.id.TimeOrderedIds;
+import com.acas.model.Enrollment;
+import com.acas.prerequisite.PrerequisiteIndex;
+import com.acas.repository.CourseRepository;
+import com.acas.schedule.ScheduleIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes enrollments straight to {@code course_enrollments} and {@code enrollments}
+ * with JDBC batches, so enrolling never loads a course roster or a student's course set.
+ * Pairs that already exist, including ones a concurrent request inserted after they were
+ * checked, are skipped and reported instead of failing the batch. Seats are admitted
+ * through the {@link SeatLedger} and then checked against the locked course rows, so
+ * capped courses are never oversold, even by several instances at once.
+ * Pairs whose prerequisites the student has not passed, or that would overlap the
+ * student's timetable in the {@link ScheduleIndex}, are rejected.
+ */
+@Service
+@RequiredArgsConstructor
+public class EnrollmentService {
+    
+    // Both forms report an update count of 0 for a pair that is already there instead of a key violation
+    private static final String INSERT_COURSE_ENROLLMENT_POSTGRESQL =
+            "INSERT INTO course_enrollments (course_id, student_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String MERGE_COURSE_ENROLLMENT =
+            "MERGE INTO course_enrollments e USING (VALUES (CAST(? AS UUID), CAST(? AS UUID))) AS p (course_id, student_id) " +
+            "ON e.course_id = p.course_id AND e.student_id = p.student_id " +
+            "WHEN NOT MATCHED THEN INSERT (course_id, student_id) VALUES (p.course_id, p.student_id)";
+    private static final String INSERT_ENROLLMENT =
+            "INSERT INTO enrollments (id, student_id, course_id, enrolled_at, status) VALUES (?, ?, ?, ?, 'ENROLLED')";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SeatLedger seatLedger;
+    private final CourseDetailCache courseDetailCache;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ReportCounters reportCounters;
+    private final ScheduleIndex scheduleIndex;
+    private final PrerequisiteIndex prerequisiteIndex;
+    private final GradebookEngine gradebookEngine;
+    private final CourseRepository courseRepository;
+    
+    private volatile String insertCourseEnrollment;
+    
+    @Transactional
+    public BatchEnrollmentResult enrollStudentsInCourse(String courseId, Collection<String> studentIds) {
+        Set<String> requested = new LinkedHashSet<>(studentIds);
+        if (!courseExists(courseId)) {
+            return BatchEnrollmentResult.targetNotFound(requested);
+        }
+        if (requested.isEmpty()) {
+            return BatchEnrollmentResult.empty();
+        }
+        
+        // Ids that are not UUIDs match no row and are reported as not found
+        Set<String> lookup = TimeOrderedIds.wellFormed(requested);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("ids", lookup);
+        Set<String> students = lookup.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id IN (:ids) AND role = 'STUDENT'", params, String.class));
+        Set<String> existing = students.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT student_id FROM course_enrollments WHERE course_id = :courseId AND student_id IN (:ids)",
+                params, String.class));
+        
+        List<String> candidates = new ArrayList<>();
+        List<String> alreadyEnrolled = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        List<String> conflicts = new ArrayList<>();
+        List<String> ineligible = new ArrayList<>();
+        for (String studentId : requested) {
+            if (!students.contains(studentId)) {
+                notFound.add(studentId);
+            } else if (existing.contains(studentId)) {
+                alreadyEnrolled.add(studentId);
+            } else if (!prerequisiteIndex.missingPrerequisites(studentId, courseId).isEmpty()) {
+                ineligible.add(studentId);
+            } else if (!scheduleIndex.tryClaim(studentId, courseId)) {
+                conflicts.add(studentId);
+            } else {
+                candidates.add(studentId);
+            }
+        }
+        
+        // Seats are granted in request order; whoever does not fit is reported as noSeats
+        int granted = seatLedger.tryReserve(courseId, candidates.size());
+        if (granted > 0) {
+            // The ledger only counts this instance's admissions; the locked row has the committed count
+            int free = seatLedger.lockFreeSeats(List.of(courseId)).getOrDefault(courseId, granted);
+            if (free < granted) {
+                seatLedger.release(courseId, granted - Math.max(free, 0));
+                granted = Math.max(free, 0);
+            }
+        }
+        List<String> enrolled = new ArrayList<>(candidates.subList(0, granted));
+        List<String> noSeats = new ArrayList<>(candidates.subList(granted, candidates.size()));
+        noSeats.forEach(studentId -> scheduleIndex.release(studentId, courseId));
+        
+        List<Object[]> pairs = new ArrayList<>();
+        for (String studentId : enrolled) {
+            pairs.add(new Object[]{studentId, courseId});
+        }
+        boolean[] inserted = insertPairs(pairs);
+        // Students another request enrolled after the check are reported as already enrolled
+        List<String> added = new ArrayList<>(enrolled.size());
+        for (int i = 0; i < enrolled.size(); i++) {
+            (inserted[i] ? added : alreadyEnrolled).add(enrolled.get(i));
+        }
+        return new BatchEnrollmentResult(added, alreadyEnrolled, notFound, noSeats, conflicts, ineligible, true);
+    }
+    
+    @Transactional
+    public BatchEnrollmentResult enrollStudentInCourses(String studentId, Collection<String> courseIds) {
+        Set<String> requested = new LinkedHashSet<>(courseIds);
+        if (!studentExists(studentId)) {
+            return BatchEnrollmentResult.targetNotFound(requested);
+        }
+        if (requested.isEmpty()) {
+            return BatchEnrollmentResult.empty();
+        }
+        
+        Set<String> lookup = TimeOrderedIds.wellFormed(requested);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentId", studentId)
+                .addValue("ids", lookup);
+        Set<String> courses = lookup.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM courses WHERE id IN (:ids)", params, String.class));
+        Set<String> existing = courses.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT course_id FROM course_enrollments WHERE student_id = :studentId AND course_id IN (:ids)",
+                params, String.class));
+        
+        List<String> admitted = new ArrayList<>();
+        List<String> alreadyEnrolled = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        List<String> noSeats = new ArrayList<>();
+        List<String> conflicts = new ArrayList<>();
+        List<String> ineligible = new ArrayList<>();
+        // Claims are visible immediately, so two overlapping courses in one request conflict with each other
+        for (String courseId : requested) {
+            if (!courses.contains(courseId)) {
+                notFound.add(courseId);
+            } else if (existing.contains(courseId)) {
+                alreadyEnrolled.add(courseId);
+            } else if (!prerequisiteIndex.missingPrerequisites(studentId, courseId).isEmpty()) {
+                ineligible.add(courseId);
+            } else if (!scheduleIndex.tryClaim(studentId, courseId)) {
+                conflicts.add(courseId);
+            } else if (seatLedger.tryReserve(courseId, 1) == 0) {
+                scheduleIndex.release(studentId, courseId);
+                noSeats.add(courseId);
+            } else {
+                admitted.add(courseId);
+            }
+        }
+        
+        // The ledger only counts this instance's admissions; the locked rows have the committed counts
+        Map<String, Integer> free = seatLedger.lockFreeSeats(admitted);
+        List<String> enrolled = new ArrayList<>();
+        List<Object[]> pairs = new ArrayList<>();
+        for (String courseId : admitted) {
+            if (free.getOrDefault(courseId, 1) > 0) {
+                enrolled.add(courseId);
+                pairs.add(new Object[]{studentId, courseId});
+            } else {
+                seatLedger.release(courseId, 1);
+                scheduleIndex.release(studentId, courseId);
+                noSeats.add(courseId);
+            }
+        }
+        
+        boolean[] inserted = insertPairs(pairs);
+        List<String> added = new ArrayList<>(enrolled.size());
+        for (int i = 0; i < enrolled.size(); i++) {
+            (inserted[i] ? added : alreadyEnrolled).add(enrolled.get(i));
+        }
+        return new BatchEnrollmentResult(added, alreadyEnrolled, notFound, noSeats, conflicts, ineligible, true);
+    }
+    
+    /**
+     * Removes the enrollment with two direct deletes. Returns whether the student was enrolled.
+     */
+    @Transactional
+    public boolean unenroll(String studentId, String courseId) {
+        if (!TimeOrderedIds.isWellFormed(studentId) || !TimeOrderedIds.isWellFormed(courseId)) {
+            return false;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentId", studentId)
+                .addValue("courseId", courseId);
+        List<LocalDateTime> enrolledAt = jdbcTemplate.queryForList(
+                "SELECT enrolled_at FROM enrollments WHERE course_id = :courseId AND student_id = :studentId",
+                params, LocalDateTime.class);
+        int removed = jdbcTemplate.update(
+                "DELETE FROM course_enrollments WHERE course_id = :courseId AND student_id = :studentId", params);
+        jdbcTemplate.update(
+                "DELETE FROM enrollments WHERE course_id = :courseId AND student_id = :studentId", params);
+        if (removed > 0) {
+            seatLedger.release(courseId, removed);
+            courseDetailCache.enrollmentChanged(courseId);
+            entityCacheEvictor.enrollmentChanged(courseId, studentId);
+            reportCounters.unenrolled(courseId, removed, enrolledAt);
+            scheduleIndex.unenrolled(studentId, courseId);
+            // The enrollments row holding a pass is gone, so the course no longer counts as passed
+            prerequisiteIndex.outcomeChanged(studentId, courseId, false);
+            gradebookEngine.invalidate(courseId);
+        }
+        return removed > 0;
+    }
+    
+    /**
+     * Records the outcome of an enrollment. Passing a course satisfies it as a prerequisite
+     * once the update commits. Returns whether the enrollment exists.
+     */
+    @Transactional
+    public boolean updateStatus(String studentId, String courseId, Enrollment.EnrollmentStatus status) {
+        if (!TimeOrderedIds.isWellFormed(studentId) || !TimeOrderedIds.isWellFormed(courseId)) {
+            return false;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentId", studentId)
+                .addValue("courseId", courseId)
+                .addValue("status", status.name());
+        int updated = jdbcTemplate.update(
+                "UPDATE enrollments SET status = :status WHERE course_id = :courseId AND student_id = :studentId", params);
+        if (updated > 0) {
+            prerequisiteIndex.outcomeChanged(studentId, courseId, status == Enrollment.EnrollmentStatus.PASSED);
+            // Cancelled enrollments drop out of the gradebook
+            gradebookEngine.invalidate(courseId);
+        }
+        return updated > 0;
+    }
+    
+    /**
+     * Deletes a course with its enrollment records and their grades, which schemas created
+     * before those foreign keys cascaded would otherwise reject, and takes it out of other
+     * courses' prerequisites.
+     */
+    @Transactional
+    public void deleteCourse(String courseId) {
+        if (!TimeOrderedIds.isWellFormed(courseId)) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("courseId", courseId);
+        jdbcTemplate.update(
+                "DELETE FROM grades WHERE enrollment_id IN (SELECT id FROM enrollments WHERE course_id = :courseId)",
+                params);
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = :courseId", params);
+        if (jdbcTemplate.update("DELETE FROM course_prerequisites WHERE prerequisite_id = :courseId", params) > 0) {
+            entityCacheEvictor.prerequisiteRemoved();
+        }
+        courseRepository.deleteById(courseId);
+    }
+    
+    public boolean courseExists(String courseId) {
+        return exists("SELECT COUNT(*) FROM courses WHERE id = :id", courseId);
+    }
+    
+    public boolean studentExists(String studentId) {
+        return exists("SELECT COUNT(*) FROM users WHERE id = :id AND role = 'STUDENT'", studentId);
+    }
+    
+    private boolean exists(String sql, String id) {
+        if (!TimeOrderedIds.isWellFormed(id)) {
+            return false;
+        }
+        Long count = jdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", id), Long.class);
+        return count != null && count > 0;
+    }
+    
+    /**
+     * Inserts each {studentId, courseId} pair unless it is already there and returns which
+     * ones were inserted. The seat reserved for a skipped pair is given back; its schedule
+     * claim stays, since the student does hold the course.
+     */
+    private boolean[] insertPairs(List<Object[]> pairs) {
+        boolean[] inserted = new boolean[pairs.size()];
+        if (pairs.isEmpty()) {
+            return inserted;
+        }
+        List<Object[]> joinRows = new ArrayList<>(pairs.size());
+        for (Object[] pair : pairs) {
+            joinRows.add(new Object[]{pair[1], pair[0]});
+        }
+        int[] counts = jdbcTemplate.getJdbcTemplate().batchUpdate(insertCourseEnrollment(), joinRows);
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> added = new ArrayList<>(pairs.size());
+        List<Object[]> enrollmentRows = new ArrayList<>(pairs.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            Object[] pair = pairs.get(i);
+            // SUCCESS_NO_INFO (-2) still means the row was written
+            inserted[i] = counts[i] != 0;
+            if (inserted[i]) {
+                added.add(pair);
+                enrollmentRows.add(new Object[]{TimeOrderedIds.nextId(), pair[0], pair[1], now});
+            } else {
+                seatLedger.release((String) pair[1], 1);
+            }
+        }
+        if (added.isEmpty()) {
+            return inserted;
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ENROLLMENT, enrollmentRows);
+        
+        Map<String, Integer> countsByCourse = new HashMap<>();
+        for (Object[] pair : added) {
+            countsByCourse.merge((String) pair[1], 1, Integer::sum);
+            entityCacheEvictor.enrollmentChanged((String) pair[1], (String) pair[0]);
+        }
+        countsByCourse.keySet().forEach(courseDetailCache::enrollmentChanged);
+        countsByCourse.keySet().forEach(gradebookEngine::invalidate);
+        reportCounters.enrolled(countsByCourse, now.toLocalDateTime());
+        return inserted;
+    }
+    
+    private String insertCourseEnrollment() {
+        String sql = insertCourseEnrollment;
+        if (sql == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equals(product) ? INSERT_COURSE_ENROLLMENT_POSTGRESQL : MERGE_COURSE_ENROLLMENT;
+            insertCourseEnrollment = sql;
+        }
+        return sql;
+    }
+    
+    public record BatchEnrollmentResult(
+            List<String> enrolled,
+            List<String> alreadyEnrolled,
+            List<String> notFound,
+            List<String> noSeats,
+            List<String> conflicts,
+            List<String> missingPrerequisites,
+            boolean targetFound
+    ) {
+        static BatchEnrollmentResult empty() {
+            return new BatchEnrollmentResult(List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), true);
+        }
+        
+        static BatchEnrollmentResult targetNotFound(Collection<String> requested) {
+            return new BatchEnrollmentResult(
+                    List.of(), List.of(), new ArrayList<>(requested), List.of(), List.of(), List.of(), false);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.acas.service;
+
+import com.acas.model.User;
+import com.acas.repository.CourseRepository;
+import com.acas.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams bulk exports as newline-delimited JSON. Rows come from DTO projection
+ * streams read with a JDBC fetch size, so nothing accumulates in the persistence
+ * context and memory stays flat regardless of table size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+    
+    public static final String NDJSON = "application/x-ndjson";
+    
+    private static final int FLUSH_EVERY = 500;
+    
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(readOnly = true)
+    public long exportStudents(OutputStream out) throws IOException {
+        try (Stream<?> rows = userRepository.streamExportRowsByRole(User.UserRole.STUDENT)) {
+            return write(rows, out);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportCourses(OutputStream out) throws IOException {
+        try (Stream<?> rows = courseRepository.streamSummaries()) {
+            return write(rows, out);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportEnrollments(OutputStream out) throws IOException {
+        try (Stream<?> rows = courseRepository.streamEnrollmentRows()) {
+            return write(rows, out);
+        }
+    }
+    
+    private long write(Stream<?> rows, OutputStream out) throws IOException {
+        long count = 0;
+        SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+        Iterator<?> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+}
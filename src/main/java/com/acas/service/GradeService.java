@@ -0,0 +1,145 @@
+package com.acas.service;
+
+import com.acas.dto.course.Gradebook;
+import com.acas.grade.GradebookEngine;
+import com.acas.id.TimeOrderedIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes evaluation items and grades with JDBC batches. Every write drops the course's
+ * computed gradebook in the {@link GradebookEngine} once it commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class GradeService {
+    
+    public static final BigDecimal MAX_SCORE = new BigDecimal("5.00");
+    
+    private static final String UPDATE_ITEM =
+            "UPDATE evaluation_items SET name = ?, weight = ? WHERE id = ?";
+    private static final String INSERT_ITEM =
+            "INSERT INTO evaluation_items (id, course_id, name, weight) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_GRADE =
+            "DELETE FROM grades WHERE enrollment_id = ? AND item_id = ?";
+    private static final String INSERT_GRADE =
+            "INSERT INTO grades (id, enrollment_id, item_id, score) VALUES (?, ?, ?, ?)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final GradebookEngine gradebookEngine;
+    
+    /**
+     * Replaces the evaluation items of a course. Items listed with their id are updated and
+     * keep their grades; items without an id are created; unlisted items are deleted along
+     * with their grades. Returns false, changing nothing, if an id belongs to no item of the course.
+     */
+    @Transactional
+    public boolean replaceItems(String courseId, List<Gradebook.Item> items) {
+        MapSqlParameterSource params = new MapSqlParameterSource("courseId", courseId);
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM evaluation_items WHERE course_id = :courseId", params, String.class));
+        
+        Set<String> kept = new HashSet<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Gradebook.Item item : items) {
+            if (item.id() == null) {
+                inserts.add(new Object[]{TimeOrderedIds.nextId(), courseId, item.name(), item.weight()});
+            } else if (existing.contains(item.id())) {
+                kept.add(item.id());
+                updates.add(new Object[]{item.name(), item.weight(), item.id()});
+            } else {
+                return false;
+            }
+        }
+        
+        if (kept.isEmpty() && !existing.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM evaluation_items WHERE course_id = :courseId", params);
+        } else if (kept.size() < existing.size()) {
+            jdbcTemplate.update("DELETE FROM evaluation_items WHERE course_id = :courseId AND id NOT IN (:kept)",
+                    params.addValue("kept", kept));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_ITEM, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ITEM, inserts);
+        }
+        gradebookEngine.invalidate(courseId);
+        return true;
+    }
+    
+    /**
+     * Records scores for the course, replacing any previous score for the same student and
+     * item. Entries for students not enrolled in the course or items outside it are skipped
+     * and returned.
+     */
+    @Transactional
+    public List<GradeEntry> recordGrades(String courseId, List<GradeEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        
+        // Student ids that are not UUIDs match no enrollment and their entries are rejected
+        Set<String> studentIds = new HashSet<>();
+        entries.forEach(entry -> {
+            if (TimeOrderedIds.isWellFormed(entry.studentId())) {
+                studentIds.add(entry.studentId());
+            }
+        });
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("ids", studentIds);
+        Set<String> items = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM evaluation_items WHERE course_id = :courseId", params, String.class));
+        Map<String, String> enrollmentIds = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            jdbcTemplate.query(
+                    "SELECT student_id, id FROM enrollments WHERE course_id = :courseId AND student_id IN (:ids)",
+                    params, rs -> {
+                        enrollmentIds.put(rs.getString(1), rs.getString(2));
+                    });
+        }
+        
+        // Keyed by enrollment and item, so the last score for a pair in the request wins
+        Map<List<String>, BigDecimal> scores = new LinkedHashMap<>();
+        List<GradeEntry> rejected = new ArrayList<>();
+        for (GradeEntry entry : entries) {
+            String enrollmentId = enrollmentIds.get(entry.studentId());
+            if (enrollmentId == null || !items.contains(entry.itemId())) {
+                rejected.add(entry);
+            } else {
+                scores.put(List.of(enrollmentId, entry.itemId()), entry.score());
+            }
+        }
+        if (scores.isEmpty()) {
+            return rejected;
+        }
+        
+        List<Object[]> deletes = new ArrayList<>(scores.size());
+        List<Object[]> inserts = new ArrayList<>(scores.size());
+        scores.forEach((key, score) -> {
+            deletes.add(new Object[]{key.get(0), key.get(1)});
+            inserts.add(new Object[]{TimeOrderedIds.nextId(), key.get(0), key.get(1), score});
+        });
+        jdbcTemplate.getJdbcTemplate().batchUpdate(DELETE_GRADE, deletes);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_GRADE, inserts);
+        gradebookEngine.invalidate(courseId);
+        return rejected;
+    }
+    
+    public record GradeEntry(String studentId, String itemId, BigDecimal score) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.acas.service;
+
+import com.acas.cache.EntityCacheEvictor;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for login timestamps. Logins only record the latest stamp per
+ * user in memory; a scheduled flush writes them with a single JDBC batch update,
+ * leaving {@code updated_at} untouched.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginBuffer {
+    
+    private static final String UPDATE_SQL = "UPDATE users SET last_login = ? WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    
+    public void record(String userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+    
+    public int pendingCount() {
+        return pending.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> batch = new ArrayList<>();
+        for (String userId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                batch.add(new Object[]{Timestamp.valueOf(loginAt), userId});
+            }
+        }
+        
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            entityCacheEvictor.usersChanged(batch.stream().map(row -> (String) row[1]).toList());
+            log.debug("Flushed {} last-login updates", batch.size());
+        } catch (RuntimeException e) {
+            // Put the stamps back so the next flush retries them
+            for (Object[] row : batch) {
+                record((String) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+            log.warn("Failed to flush last-login updates, will retry", e);
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
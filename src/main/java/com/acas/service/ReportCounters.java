@@ -0,0 +1,225 @@
+package com.acas.service;
+
+import com.acas.dto.report.CourseEnrollmentCount;
+import com.acas.dto.report.MonthlyEnrollmentCount;
+import com.acas.model.User;
+import com.acas.repository.CourseRepository;
+import com.acas.repository.EnrollmentRepository;
+import com.acas.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reporting aggregates kept in memory: enrollments per course (with a ranking for the
+ * top-courses report), enrollments per month and users per role. Writers apply deltas
+ * after commit, so dashboard reads never touch the database.
+ * <p>
+ * Everything is rebuilt from grouped queries at startup and on a fixed interval. The
+ * rebuild swaps in fresh tallies, so a delta committed while it runs can be missed until
+ * the next one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportCounters {
+    
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final UserRepository userRepository;
+    
+    private volatile Tallies tallies = new Tallies();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reports.recompute-interval-ms:600000}",
+               fixedDelayString = "${reports.recompute-interval-ms:600000}")
+    public void recompute() {
+        Tallies fresh = new Tallies();
+        for (Object[] row : courseRepository.findEnrollmentCounts()) {
+            fresh.putCourse((String) row[0], (String) row[1], ((Number) row[2]).longValue());
+        }
+        for (Object[] row : enrollmentRepository.countByMonth()) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            fresh.byMonth.put(month, new AtomicLong(((Number) row[2]).longValue()));
+        }
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            fresh.byRole.get((User.UserRole) row[0]).set(((Number) row[1]).longValue());
+        }
+        
+        Tallies previous = tallies;
+        tallies = fresh;
+        if (previous.totalEnrollments.get() != fresh.totalEnrollments.get()) {
+            log.debug("Report counters corrected: {} -> {} enrollments",
+                    previous.totalEnrollments.get(), fresh.totalEnrollments.get());
+        }
+    }
+    
+    public void courseCreated(String courseId, String name) {
+        tallies.putCourse(courseId, name, 0);
+    }
+    
+    public void courseRenamed(String courseId, String name) {
+        tallies.courses.computeIfPresent(courseId, (id, tally) -> new CourseTally(id, name, tally.count()));
+    }
+    
+    public void courseDeleted(String courseId) {
+        tallies.removeCourse(courseId);
+    }
+    
+    public void usersCreated(User.UserRole role, int count) {
+        tallies.byRole.get(role).addAndGet(count);
+    }
+    
+    public void userDeleted(User.UserRole role) {
+        tallies.byRole.get(role).decrementAndGet();
+    }
+    
+    /** Records new enrollments per course once the inserting transaction commits. */
+    public void enrolled(Map<String, Integer> countsByCourse, LocalDateTime enrolledAt) {
+        afterCommit(() -> {
+            Tallies current = tallies;
+            countsByCourse.forEach((courseId, count) -> current.addEnrollments(courseId, count));
+            int total = countsByCourse.values().stream().mapToInt(Integer::intValue).sum();
+            current.addMonthly(YearMonth.from(enrolledAt), total);
+        });
+    }
+    
+    /** Records removed enrollments once the deleting transaction commits. */
+    public void unenrolled(String courseId, int count, List<LocalDateTime> enrolledAt) {
+        afterCommit(() -> {
+            Tallies current = tallies;
+            current.addEnrollments(courseId, -count);
+            enrolledAt.forEach(at -> current.addMonthly(YearMonth.from(at), -1));
+        });
+    }
+    
+    public long countUsers(User.UserRole role) {
+        return tallies.byRole.get(role).get();
+    }
+    
+    public long countCourses() {
+        return tallies.courses.size();
+    }
+    
+    public long countEnrollments() {
+        return tallies.totalEnrollments.get();
+    }
+    
+    public long countEnrollments(YearMonth month) {
+        AtomicLong count = tallies.byMonth.get(month);
+        return count != null ? count.get() : 0L;
+    }
+    
+    public List<CourseEnrollmentCount> topCourses(int limit) {
+        Tallies current = tallies;
+        List<CourseEnrollmentCount> top = new ArrayList<>(limit);
+        Iterator<Rank> ranks = current.ranking.iterator();
+        while (top.size() < limit && ranks.hasNext()) {
+            CourseTally tally = current.courses.get(ranks.next().courseId());
+            if (tally != null) {
+                top.add(new CourseEnrollmentCount(tally.id(), tally.name(), tally.count()));
+            }
+        }
+        return top;
+    }
+    
+    /** Enrollment counts for the last {@code months} months, oldest first, including the current one. */
+    public List<MonthlyEnrollmentCount> monthly(int months) {
+        YearMonth current = YearMonth.now();
+        List<MonthlyEnrollmentCount> counts = new ArrayList<>(months);
+        for (int i = months - 1; i >= 0; i--) {
+            YearMonth month = current.minusMonths(i);
+            counts.add(new MonthlyEnrollmentCount(month.toString(), countEnrollments(month)));
+        }
+        return counts;
+    }
+    
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+    
+    private record CourseTally(String id, String name, long count) {
+    }
+    
+    // Highest count first; the id breaks ties so every course has its own entry
+    private record Rank(long count, String courseId) {
+        static final Comparator<Rank> ORDER = Comparator.comparingLong(Rank::count).reversed()
+                .thenComparing(Rank::courseId);
+    }
+    
+    private static final class Tallies {
+        
+        private final ConcurrentHashMap<String, CourseTally> courses = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Rank> ranking = new ConcurrentSkipListSet<>(Rank.ORDER);
+        private final ConcurrentHashMap<YearMonth, AtomicLong> byMonth = new ConcurrentHashMap<>();
+        private final EnumMap<User.UserRole, AtomicLong> byRole = new EnumMap<>(User.UserRole.class);
+        private final AtomicLong totalEnrollments = new AtomicLong();
+        
+        private Tallies() {
+            for (User.UserRole role : User.UserRole.values()) {
+                byRole.put(role, new AtomicLong());
+            }
+        }
+        
+        // Map and ranking are updated inside compute, so changes to one course are serialized
+        private void putCourse(String courseId, String name, long count) {
+            courses.compute(courseId, (id, old) -> {
+                if (old != null) {
+                    ranking.remove(new Rank(old.count(), id));
+                    totalEnrollments.addAndGet(-old.count());
+                }
+                ranking.add(new Rank(count, id));
+                totalEnrollments.addAndGet(count);
+                return new CourseTally(id, name, count);
+            });
+        }
+        
+        private void addEnrollments(String courseId, int delta) {
+            courses.computeIfPresent(courseId, (id, old) -> {
+                long count = Math.max(0, old.count() + delta);
+                ranking.remove(new Rank(old.count(), id));
+                ranking.add(new Rank(count, id));
+                totalEnrollments.addAndGet(count - old.count());
+                return new CourseTally(id, old.name(), count);
+            });
+        }
+        
+        private void removeCourse(String courseId) {
+            courses.computeIfPresent(courseId, (id, old) -> {
+                ranking.remove(new Rank(old.count(), id));
+                totalEnrollments.addAndGet(-old.count());
+                return null;
+            });
+        }
+        
+        private void addMonthly(YearMonth month, int delta) {
+            byMonth.computeIfAbsent(month, key -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.acas.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory seat counters per course. Admission is a CAS on the course's counter, so
+ * concurrent enrollments into one hot course never wait on a database row lock.
+ * <p>
+ * A seat counts as used from the moment it is reserved; if the surrounding transaction
+ * rolls back the seat is returned. A released seat stays used until the deleting
+ * transaction has committed. Counters are loaded lazily from the database and
+ * periodically reconciled against {@code course_enrollments}, adding back reservations
+ * and releases whose transactions have not completed yet. Reconciliation only ever
+ * over-counts transiently (seats that just committed), never under-counts. Lock stripes
+ * serialize reconciliation against admission for courses hashing to the same stripe.
+ * <p>
+ * The counters only see this instance's admissions, so with several instances they are a
+ * fast reject in front of {@link #lockFreeSeats}: the enrolling transaction locks the
+ * course rows and checks the committed count, which is what keeps a course from being
+ * oversold across instances.
+ */
+@Component
+@Slf4j
+public class SeatLedger {
+    
+    private static final String SELECT_FREE_SEATS_FOR_UPDATE =
+            "SELECT CAST(c.id AS VARCHAR), c.capacity - " +
+            "(SELECT COUNT(*) FROM course_enrollments e WHERE e.course_id = c.id) " +
+            "FROM courses c WHERE c.id IN (:ids) AND c.capacity IS NOT NULL ORDER BY c.id FOR UPDATE";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ConcurrentHashMap<String, Seats> seats = new ConcurrentHashMap<>();
+    private final ReadWriteLock[] stripes;
+    
+    public SeatLedger(JdbcTemplate jdbcTemplate,
+                      @Value("${enrollment.seat-ledger.stripes:64}") int stripeCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.stripes = new ReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+    
+    /**
+     * Reserves up to {@code requested} seats and returns how many were granted. Inside a
+     * transaction the seats are returned automatically if it rolls back.
+     */
+    public int tryReserve(String courseId, int requested) {
+        if (requested <= 0) {
+            return 0;
+        }
+        ReadWriteLock stripe = stripeFor(courseId);
+        Seats entry = loadIfAbsent(courseId, stripe);
+        if (entry == null) {
+            return 0;
+        }
+        
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        int granted;
+        stripe.readLock().lock();
+        try {
+            granted = entry.admit(requested);
+            // Counted as in flight before reconcile can run, or its recount would drop the seat
+            if (transactional && granted > 0) {
+                entry.inFlight.addAndGet(granted);
+            }
+        } finally {
+            stripe.readLock().unlock();
+        }
+        
+        if (transactional && granted > 0) {
+            completeInFlight(entry, granted);
+        }
+        return granted;
+    }
+    
+    /**
+     * Locks the rows of the capped courses among {@code courseIds} until the current
+     * transaction ends and returns their free seats by committed count. Courses without a
+     * capacity are left out. Rows are locked in id order so concurrent batches cannot deadlock.
+     */
+    public Map<String, Integer> lockFreeSeats(Collection<String> courseIds) {
+        Map<String, Integer> free = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return free;
+        }
+        namedJdbcTemplate.query(SELECT_FREE_SEATS_FOR_UPDATE, new MapSqlParameterSource("ids", courseIds),
+                (RowCallbackHandler) rs -> free.put(rs.getString(1), rs.getInt(2)));
+        return free;
+    }
+    
+    /** Returns seats freed by unenrollment once the deleting transaction commits. */
+    public void release(String courseId, int count) {
+        Seats entry = seats.get(courseId);
+        if (entry == null || count <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entry.used.addAndGet(-count);
+            return;
+        }
+        entry.releasing.addAndGet(count);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Subtract before the release stops being pending, so reconcile never sees it as neither
+                if (status == STATUS_COMMITTED) {
+                    entry.used.addAndGet(-count);
+                }
+                entry.releasing.addAndGet(-count);
+            }
+        });
+    }
+    
+    public void updateCapacity(String courseId, Integer capacity) {
+        Seats entry = seats.get(courseId);
+        if (entry != null) {
+            entry.capacity = capacity != null ? capacity : Integer.MAX_VALUE;
+        }
+    }
+    
+    public void remove(String courseId) {
+        seats.remove(courseId);
+    }
+    
+    public Integer availableSeats(String courseId) {
+        Seats entry = seats.get(courseId);
+        if (entry == null || entry.capacity == Integer.MAX_VALUE) {
+            return null;
+        }
+        return Math.max(0, entry.capacity - entry.used.get());
+    }
+    
+    @Scheduled(fixedDelayString = "${enrollment.seat-ledger.reconcile-interval-ms:60000}")
+    public void reconcileAll() {
+        for (String courseId : seats.keySet()) {
+            reconcile(courseId);
+        }
+    }
+    
+    public void reconcile(String courseId) {
+        ReadWriteLock stripe = stripeFor(courseId);
+        stripe.writeLock().lock();
+        try {
+            Seats entry = seats.get(courseId);
+            if (entry == null) {
+                return;
+            }
+            // Snapshot in-flight seats before counting, so a commit in between is counted twice rather than missed
+            int inFlight = entry.inFlight.get();
+            Seats current = load(courseId);
+            if (current == null) {
+                seats.remove(courseId);
+                return;
+            }
+            // Pending releases are read after counting: one that commits in between is either still
+            // pending here, or already subtracted from the value being overwritten
+            int releasing = entry.releasing.get();
+            int used = current.used.get() + inFlight + releasing;
+            int drift = used - entry.used.get();
+            entry.capacity = current.capacity;
+            entry.used.set(used);
+            if (drift != 0) {
+                log.debug("Seat ledger for course {} corrected by {}", courseId, drift);
+            }
+        } finally {
+            stripe.writeLock().unlock();
+        }
+    }
+    
+    private void completeInFlight(Seats entry, int count) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Return a rolled-back seat while it still counts as in flight, so a recount cannot drop it twice
+                if (status != STATUS_COMMITTED) {
+                    entry.used.addAndGet(-count);
+                }
+                entry.inFlight.addAndGet(-count);
+            }
+        });
+    }
+    
+    private Seats loadIfAbsent(String courseId, ReadWriteLock stripe) {
+        Seats entry = seats.get(courseId);
+        if (entry != null) {
+            return entry;
+        }
+        stripe.writeLock().lock();
+        try {
+            entry = seats.get(courseId);
+            if (entry == null) {
+                entry = load(courseId);
+                if (entry != null) {
+                    seats.put(courseId, entry);
+                }
+            }
+            return entry;
+        } finally {
+            stripe.writeLock().unlock();
+        }
+    }
+    
+    private Seats load(String courseId) {
+        List<Integer> capacity = jdbcTemplate.query(
+                "SELECT capacity FROM courses WHERE id = ?",
+                (rs, rowNum) -> rs.getObject("capacity", Integer.class),
+                courseId);
+        if (capacity.isEmpty()) {
+            return null;
+        }
+        Integer used = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM course_enrollments WHERE course_id = ?", Integer.class, courseId);
+        Integer limit = capacity.get(0);
+        return new Seats(limit != null ? limit : Integer.MAX_VALUE, used != null ? used : 0);
+    }
+    
+    private ReadWriteLock stripeFor(String courseId) {
+        return stripes[Math.floorMod(courseId.hashCode(), stripes.length)];
+    }
+    
+    private static final class Seats {
+        private volatile int capacity;
+        private final AtomicInteger used;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger releasing = new AtomicInteger();
+        
+        private Seats(int capacity, int used) {
+            this.capacity = capacity;
+            this.used = new AtomicInteger(used);
+        }
+        
+        private int admit(int requested) {
+            while (true) {
+                int current = used.get();
+                int granted = Math.min(requested, capacity - current);
+                if (granted <= 0) {
+                    return 0;
+                }
+                if (used.compareAndSet(current, current + granted)) {
+                    return granted;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.acas.service;
+
+import com.acas.cache.EntityCacheEvictor;
+import com.acas.dto.student.ImportReport;
+import com.acas.id.TimeOrderedIds;
+import com.acas.model.User;
+import com.acas.repository.UserRepository;
+import com.acas.search.SearchIndexService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Imports students from a CSV upload with a {@code name,email,password} header. The file
+ * is read line by line and handled in fixed-size chunks, so memory is bounded by the chunk
+ * size and the error cap rather than the file size. For each chunk:
+ * <ul>
+ *   <li>existing emails are found with one query for the whole chunk,</li>
+ *   <li>passwords are hashed in parallel on a pool sized to the cores,</li>
+ *   <li>rows are inserted with one JDBC batch in their own transaction.</li>
+ * </ul>
+ * Emails from earlier chunks are committed by then, so the per-chunk check also catches
+ * duplicates across the file.
+ */
+@Service
+@Slf4j
+public class StudentImportService {
+    
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, email, password, name, role, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'STUDENT', 'ACTIVE', ?, ?)";
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    // BCrypt ignores everything past 72 bytes
+    private static final int MAX_PASSWORD_BYTES = 72;
+    
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SearchIndexService searchIndexService;
+    private final ReportCounters reportCounters;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ExecutorService hashPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    
+    public StudentImportService(
+            UserRepository userRepository,
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            PasswordEncoder passwordEncoder,
+            SearchIndexService searchIndexService,
+            ReportCounters reportCounters,
+            EntityCacheEvictor entityCacheEvictor,
+            @Value("${students.import.hash-threads:0}") int hashThreads,
+            @Value("${students.import.chunk-size:500}") int chunkSize,
+            @Value("${students.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.searchIndexService = searchIndexService;
+        this.reportCounters = reportCounters;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.hashPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+    
+    /**
+     * Reads the whole stream and returns a per-row report. Throws IllegalArgumentException if
+     * the header lacks a required column; rows with problems are reported, never thrown.
+     */
+    public ImportReport importCsv(InputStream in) throws IOException {
+        Progress progress = new Progress(maxReportedErrors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Columns columns = Columns.of(parseLine(headerLine.replace("\uFEFF", "")));
+        
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.rows++;
+            Row row = columns.row(lineNumber, parseLine(line));
+            String problem = validate(row);
+            if (problem != null) {
+                progress.fail(row, problem);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, progress);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+        
+        log.info("Student import finished: {} rows, {} imported, {} failed",
+                progress.rows, progress.imported, progress.failed);
+        return progress.report();
+    }
+    
+    private void importChunk(List<Row> chunk, Progress progress) {
+        List<Row> accepted = withoutExisting(chunk, progress);
+        if (accepted.isEmpty()) {
+            return;
+        }
+        List<String> hashes = hashAll(accepted);
+        try {
+            insert(accepted, hashes);
+        } catch (DuplicateKeyException e) {
+            // Another writer registered one of the emails since the check; re-check and retry once
+            List<Row> retry = withoutExisting(accepted, progress);
+            if (retry.isEmpty()) {
+                return;
+            }
+            List<String> retryHashes = new ArrayList<>(retry.size());
+            for (Row row : retry) {
+                retryHashes.add(hashes.get(accepted.indexOf(row)));
+            }
+            accepted = retry;
+            try {
+                insert(accepted, retryHashes);
+            } catch (DuplicateKeyException again) {
+                accepted.forEach(row -> progress.fail(row, "Email already registered"));
+                return;
+            }
+        }
+        progress.imported += accepted.size();
+    }
+    
+    // Drops rows whose email is already registered or repeated earlier in the chunk
+    private List<Row> withoutExisting(List<Row> rows, Progress progress) {
+        Set<String> emails = new HashSet<>(rows.size() * 2);
+        rows.forEach(row -> emails.add(row.email()));
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(emails));
+        
+        Set<String> seen = new HashSet<>(rows.size() * 2);
+        List<Row> accepted = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(row.email())) {
+                progress.fail(row, "Email already registered");
+            } else if (!seen.add(row.email())) {
+                progress.fail(row, "Duplicate email in file");
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+    
+    private List<String> hashAll(List<Row> rows) {
+        List<Callable<String>> tasks = new ArrayList<>(rows.size());
+        rows.forEach(row -> tasks.add(() -> passwordEncoder.encode(row.password())));
+        List<String> hashes = new ArrayList<>(rows.size());
+        try {
+            for (Future<String> hash : hashPool.invokeAll(tasks)) {
+                hashes.add(hash.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+    
+    private void insert(List<Row> rows, List<String> hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> ids = new ArrayList<>(rows.size());
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            String id = TimeOrderedIds.nextId();
+            ids.add(id);
+            Row row = rows.get(i);
+            batch.add(new Object[]{id, row.email(), hashes.get(i), row.name(), now, now});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER, batch);
+            entityCacheEvictor.usersInserted();
+        });
+        
+        for (int i = 0; i < rows.size(); i++) {
+            searchIndexService.indexStudent(ids.get(i), rows.get(i).name(), rows.get(i).email());
+        }
+        reportCounters.usersCreated(User.UserRole.STUDENT, rows.size());
+    }
+    
+    private static String validate(Row row) {
+        if (row.name().isBlank()) {
+            return "Missing name";
+        }
+        if (row.email().isEmpty()) {
+            return "Missing email";
+        }
+        if (row.email().length() > 255 || !EMAIL.matcher(row.email()).matches()) {
+            return "Invalid email";
+        }
+        if (row.password().isEmpty()) {
+            return "Missing password";
+        }
+        if (row.password().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            return "Password longer than 72 bytes";
+        }
+        return null;
+    }
+    
+    /** Splits one CSV line, honouring double-quoted fields with "" as an escaped quote. */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    private record Row(long line, String name, String email, String password) {
+    }
+    
+    // Positions of the required columns in the header; other columns are ignored
+    private record Columns(int name, int email, int password) {
+        
+        static Columns of(List<String> header) {
+            List<String> names = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+            Columns columns = new Columns(names.indexOf("name"), names.indexOf("email"), names.indexOf("password"));
+            if (columns.name() < 0 || columns.email() < 0 || columns.password() < 0) {
+                throw new IllegalArgumentException("CSV header must contain name, email and password columns");
+            }
+            return columns;
+        }
+        
+        Row row(long line, List<String> fields) {
+            return new Row(line, field(fields, name).trim(), field(fields, email).trim(), field(fields, password));
+        }
+        
+        private static String field(List<String> fields, int index) {
+            return index < fields.size() ? fields.get(index) : "";
+        }
+    }
+    
+    private static final class Progress {
+        
+        private final int maxErrors;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+        
+        private Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+        
+        private void fail(Row row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(row.line(), row.email(), message));
+            }
+        }
+        
+        private ImportReport report() {
+            return new ImportReport(rows, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
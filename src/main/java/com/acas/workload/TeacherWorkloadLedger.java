@@ -0,0 +1,274 @@
+package com.acas.workload;
+
+import com.acas.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Weekly teaching hours per teacher and period, kept in step with course assignments so
+ * checking a new assignment against the maximum is a single map lookup. A course counts
+ * toward its instructor's load once it has both weekly hours and a period.
+ * <p>
+ * Writes are serialized by one lock (course changes are rare); reads are lock-free. Only
+ * the maximum is enforced on assignment: every teacher starts a period below the minimum,
+ * so underloaded teachers are reported rather than rejected.
+ * <p>
+ * The ledger is rebuilt from the database at startup and on a fixed interval. Hours reserved
+ * for courses not saved yet are carried over, and courses changed while the rebuild was
+ * reading keep their current assignment.
+ */
+@Component
+@Slf4j
+public class TeacherWorkloadLedger {
+    
+    private final CourseRepository courseRepository;
+    private final int minHours;
+    private final int maxHours;
+    
+    private final ConcurrentHashMap<String, Assignment> assignments = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LoadKey, Load> loads = new ConcurrentHashMap<>();
+    // Reserved hours not yet bound to a saved course or released; guarded by lock
+    private final Map<Assignment, Integer> pending = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Non-null while a rebuild runs
+    private volatile Set<String> touched;
+    
+    public TeacherWorkloadLedger(CourseRepository courseRepository,
+                                 @Value("${teaching.load.min-hours:8}") int minHours,
+                                 @Value("${teaching.load.max-hours:16}") int maxHours) {
+        this.courseRepository = courseRepository;
+        this.minHours = minHours;
+        this.maxHours = maxHours;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${teaching.load.rebuild-interval-ms:600000}",
+               fixedDelayString = "${teaching.load.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        touched = changed;
+        try {
+            Map<String, Assignment> stored = new HashMap<>();
+            for (Object[] row : courseRepository.findTeachingAssignments()) {
+                stored.put((String) row[0], new Assignment((String) row[1], (String) row[2], ((Number) row[3]).intValue()));
+            }
+            lock.lock();
+            try {
+                swapIn(stored, changed);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            touched = null;
+        }
+        long overloaded = loads.values().stream().filter(load -> load.hours() > maxHours).count();
+        log.info("Workload ledger built: {} assignments, {} teacher periods, {} over {} hours",
+                assignments.size(), loads.size(), overloaded, maxHours);
+    }
+    
+    // Entries are replaced one by one rather than cleared, so readers never see an empty ledger
+    private void swapIn(Map<String, Assignment> stored, Set<String> changed) {
+        Set<String> courseIds = new HashSet<>(assignments.keySet());
+        courseIds.addAll(stored.keySet());
+        for (String courseId : courseIds) {
+            if (changed.contains(courseId)) {
+                continue;
+            }
+            Assignment assignment = stored.get(courseId);
+            if (assignment != null) {
+                assignments.put(courseId, assignment);
+            } else {
+                assignments.remove(courseId);
+            }
+        }
+        
+        Map<LoadKey, Load> rebuilt = new HashMap<>();
+        for (Assignment assignment : assignments.values()) {
+            rebuilt.merge(assignment.key(), new Load(assignment.weeklyHours(), 1), Load::plus);
+        }
+        pending.forEach((assignment, count) -> rebuilt.merge(assignment.key(),
+                new Load(count * assignment.weeklyHours(), count), Load::plus));
+        Set<LoadKey> keys = new HashSet<>(loads.keySet());
+        keys.addAll(rebuilt.keySet());
+        for (LoadKey key : keys) {
+            Load load = rebuilt.get(key);
+            if (load != null) {
+                loads.put(key, load);
+            } else {
+                loads.remove(key);
+            }
+        }
+    }
+    
+    public int getMinHours() {
+        return minHours;
+    }
+    
+    public int getMaxHours() {
+        return maxHours;
+    }
+    
+    public Assignment assignmentOf(String courseId) {
+        return assignments.get(courseId);
+    }
+    
+    /**
+     * Adds the hours of a course that is about to be created. Returns false, changing
+     * nothing, if they would take the teacher over the maximum for the period.
+     */
+    public boolean reserve(Assignment assignment) {
+        lock.lock();
+        try {
+            if (!fits(assignment, null)) {
+                return false;
+            }
+            apply(assignment, 1);
+            pending.merge(assignment, 1, Integer::sum);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /** Records reserved hours as belonging to the course once it has been saved. */
+    public void bind(String courseId, Assignment assignment) {
+        lock.lock();
+        try {
+            unreserve(assignment);
+            swap(courseId, assignment, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /** Gives back hours reserved for a course that was not saved. */
+    public void release(Assignment assignment) {
+        lock.lock();
+        try {
+            unreserve(assignment);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Replaces the course's assignment; null removes it. Returns false, changing nothing,
+     * if the new assignment would take its teacher over the maximum.
+     */
+    public boolean reassign(String courseId, Assignment next) {
+        return swap(courseId, next, true);
+    }
+    
+    /** Puts back an assignment after the write that replaced it failed, without checking bounds. */
+    public void restore(String courseId, Assignment previous) {
+        swap(courseId, previous, false);
+    }
+    
+    public void removeCourse(String courseId) {
+        swap(courseId, null, false);
+    }
+    
+    /** Loads for one period, or for every period when null, ordered by period and teacher. */
+    public List<PeriodLoad> loads(String period) {
+        List<PeriodLoad> result = new ArrayList<>();
+        for (Map.Entry<LoadKey, Load> entry : loads.entrySet()) {
+            LoadKey key = entry.getKey();
+            if (period == null || period.equals(key.period())) {
+                result.add(new PeriodLoad(key.teacherId(), key.period(), entry.getValue().hours(), entry.getValue().courses()));
+            }
+        }
+        result.sort(Comparator.comparing(PeriodLoad::period).thenComparing(PeriodLoad::teacherId));
+        return result;
+    }
+    
+    private boolean swap(String courseId, Assignment next, boolean enforce) {
+        lock.lock();
+        try {
+            Set<String> changed = touched;
+            if (changed != null) {
+                changed.add(courseId);
+            }
+            Assignment previous = assignments.get(courseId);
+            if (enforce && next != null && !fits(next, previous)) {
+                return false;
+            }
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            if (next != null) {
+                apply(next, 1);
+                assignments.put(courseId, next);
+            } else {
+                assignments.remove(courseId);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // A change that does not add hours is always accepted, even for a teacher already over the limit
+    private boolean fits(Assignment next, Assignment previous) {
+        LoadKey key = next.key();
+        int current = loads.getOrDefault(key, Load.NONE).hours();
+        int released = previous != null && previous.key().equals(key) ? previous.weeklyHours() : 0;
+        int total = current - released + next.weeklyHours();
+        return total <= maxHours || total <= current;
+    }
+    
+    private void unreserve(Assignment assignment) {
+        pending.computeIfPresent(assignment, (key, count) -> count > 1 ? count - 1 : null);
+        apply(assignment, -1);
+    }
+    
+    private void apply(Assignment assignment, int sign) {
+        loads.compute(assignment.key(), (key, load) -> {
+            Load base = load != null ? load : Load.NONE;
+            Load updated = new Load(base.hours() + sign * assignment.weeklyHours(), base.courses() + sign);
+            return updated.courses() > 0 ? updated : null;
+        });
+    }
+    
+    public record Assignment(String teacherId, String period, int weeklyHours) {
+        
+        /** The assignment a course contributes, or null if it lacks a teacher, period or hours. */
+        public static Assignment of(String teacherId, String period, Integer weeklyHours) {
+            if (teacherId == null || period == null || weeklyHours == null) {
+                return null;
+            }
+            return new Assignment(teacherId, period, weeklyHours);
+        }
+        
+        private LoadKey key() {
+            return new LoadKey(teacherId, period);
+        }
+    }
+    
+    public record PeriodLoad(String teacherId, String period, int weeklyHours, int courses) {
+    }
+    
+    private record LoadKey(String teacherId, String period) {
+    }
+    
+    private record Load(int hours, int courses) {
+        static final Load NONE = new Load(0, 0);
+        
+        Load plus(Load other) {
+            return new Load(hours + other.hours, courses + other.courses);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+-- Brings an existing PostgreSQL database in line with the enrollments table written by the
+-- batch enrollment endpoints. Safe to run more than once:
+--   psql "postgresql://host:5432/acasdb" -v ON_ERROR_STOP=1 -f enrollments-backfill-postgresql.sql
+--
+-- 1. Every course_enrollments row made before the enrollments table was kept in step gets an
+--    ENROLLED record, so grades, prerequisites and reports see those students. The real
+--    enrollment time is unknown; the latest of the course and student creation times is the
+--    earliest moment it can have happened.
+-- 2. The foreign keys from enrollments to courses and users, and from grades to enrollments,
+--    are recreated with ON DELETE CASCADE, matching the entity mappings.
+
+BEGIN;
+
+INSERT INTO enrollments (id, student_id, course_id, enrolled_at, status)
+SELECT gen_random_uuid(), ce.student_id, ce.course_id, GREATEST(c.created_at, u.created_at), 'ENROLLED'
+FROM course_enrollments ce
+JOIN courses c ON c.id = ce.course_id
+JOIN users u ON u.id = ce.student_id
+WHERE NOT EXISTS (
+    SELECT 1 FROM enrollments e
+    WHERE e.course_id = ce.course_id AND e.student_id = ce.student_id
+);
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT c.conrelid::regclass AS table_name, c.conname AS constraint_name, pg_get_constraintdef(c.oid) AS definition
+        FROM pg_constraint c
+        WHERE c.contype = 'f'
+          AND c.confdeltype <> 'c'
+          AND ((c.conrelid = 'enrollments'::regclass AND c.confrelid IN ('courses'::regclass, 'users'::regclass))
+               OR (c.conrelid = 'grades'::regclass AND c.confrelid = 'enrollments'::regclass))
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.constraint_name);
+        EXECUTE format('ALTER TABLE %s ADD CONSTRAINT %I %s ON DELETE CASCADE',
+                       fk.table_name, fk.constraint_name, fk.definition);
+    END LOOP;
+END $$;
+
+COMMIT;
@@ -0,0 +1,72 @@
+-- Converts the string id columns of an existing PostgreSQL database to native uuid (16 bytes
+-- instead of up to 36 characters plus header), matching the CompactUuidJavaType mapping.
+-- Run once, before starting the new version, with the application stopped:
+--   psql "postgresql://host:5432/acasdb" -v ON_ERROR_STOP=1 -f uuid-ids-postgresql.sql
+--
+-- Existing ids are random UUIDs in text form, so they convert without change: URLs, tokens
+-- and client references keep working. Rows inserted afterwards get time-ordered ids.
+-- Foreign keys between converted columns are dropped and recreated with their original
+-- names and definitions; primary key and unique indexes are rebuilt by the type change.
+
+BEGIN;
+
+CREATE TEMP TABLE uuid_id_foreign_keys ON COMMIT DROP AS
+SELECT c.conrelid::regclass AS table_name, c.conname AS constraint_name, pg_get_constraintdef(c.oid) AS definition
+FROM pg_constraint c
+WHERE c.contype = 'f'
+  AND c.confrelid IN ('users'::regclass, 'courses'::regclass, 'enrollments'::regclass, 'evaluation_items'::regclass);
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT * FROM uuid_id_foreign_keys LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.constraint_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE users
+    ALTER COLUMN id TYPE uuid USING id::uuid;
+
+ALTER TABLE courses
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN instructor_id TYPE uuid USING instructor_id::uuid;
+
+ALTER TABLE course_enrollments
+    ALTER COLUMN course_id TYPE uuid USING course_id::uuid,
+    ALTER COLUMN student_id TYPE uuid USING student_id::uuid;
+
+ALTER TABLE course_schedule_days
+    ALTER COLUMN course_id TYPE uuid USING course_id::uuid;
+
+ALTER TABLE course_prerequisites
+    ALTER COLUMN course_id TYPE uuid USING course_id::uuid,
+    ALTER COLUMN prerequisite_id TYPE uuid USING prerequisite_id::uuid;
+
+ALTER TABLE enrollments
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN student_id TYPE uuid USING student_id::uuid,
+    ALTER COLUMN course_id TYPE uuid USING course_id::uuid;
+
+ALTER TABLE evaluation_items
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN course_id TYPE uuid USING course_id::uuid;
+
+ALTER TABLE grades
+    ALTER COLUMN id TYPE uuid USING id::uuid,
+    ALTER COLUMN enrollment_id TYPE uuid USING enrollment_id::uuid,
+    ALTER COLUMN item_id TYPE uuid USING item_id::uuid;
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT * FROM uuid_id_foreign_keys LOOP
+        EXECUTE format('ALTER TABLE %s ADD CONSTRAINT %I %s', fk.table_name, fk.constraint_name, fk.definition);
+    END LOOP;
+END $$;
+
+COMMIT;
+
+ANALYZE users, courses, course_enrollments, course_schedule_days, course_prerequisites,
+    enrollments, evaluation_items, grades;
@@ -0,0 +1,207 @@
+package com.acas.metrics;
+
+import com.acas.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Runs every {@link QueryBudget} endpoint once, in an order where each finds the data the
+ * previous ones created, with the budget enforced. An endpoint over its budget fails the
+ * request and the build; a budgeted endpoint without a scenario here fails it too.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget",
+        "metrics.query-stats.header=true",
+        "metrics.query-budget.enforce=true",
+        "grades.warm-up=false"
+})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+    
+    private static final String STUDENT_EMAIL = "budget.student@test.edu";
+    private static final String COURSE = "Budget Algebra";
+    private static final String FOLLOW_UP = "Budget Algebra II";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+    
+    private Cookie adminToken;
+    
+    @BeforeEach
+    void setUp() {
+        String adminId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'admin@acas.com'", String.class);
+        adminToken = new Cookie("token", jwtUtil.generateToken(
+                User.withUsername("admin@acas.com").password("unused").roles("ADMIN").build(), adminId, "ADMIN"));
+    }
+    
+    @Test
+    void everyBudgetedEndpointHasAScenario() {
+        List<String> covered = scenarios().stream().map(Scenario::endpoint).toList();
+        
+        assertThat(covered).containsExactlyInAnyOrderElementsOf(budgets().keySet());
+    }
+    
+    @TestFactory
+    Stream<DynamicTest> endpointsStayWithinBudget() {
+        Map<String, Integer> budgets = budgets();
+        return scenarios().stream().map(scenario -> DynamicTest.dynamicTest(scenario.endpoint(), () -> {
+            MockHttpServletResponse response = mockMvc.perform(scenario.request().get().cookie(adminToken))
+                    .andReturn().getResponse();
+            
+            assertThat(response.getStatus()).as(response.getContentAsString()).isBetween(200, 299);
+            assertThat(Integer.parseInt(response.getHeader(QueryBudgetAdvice.STATEMENTS_HEADER)))
+                    .isLessThanOrEqualTo(budgets.get(scenario.endpoint()));
+        }));
+    }
+    
+    // Keyed like the scenarios: "PUT /courses/{id}"
+    private Map<String, Integer> budgets() {
+        Map<String, Integer> budgets = new TreeMap<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            QueryBudget budget = entry.getValue().getMethodAnnotation(QueryBudget.class);
+            if (budget == null) {
+                continue;
+            }
+            for (RequestMethod method : entry.getKey().getMethodsCondition().getMethods()) {
+                for (String pattern : entry.getKey().getPatternValues()) {
+                    budgets.put(method + " " + pattern, budget.statements());
+                }
+            }
+        }
+        return budgets;
+    }
+    
+    private List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("POST /students", () -> json(post("/students"),
+                Map.of("name", "Budget Student", "email", STUDENT_EMAIL, "password", "student123"))));
+        scenarios.add(new Scenario("PUT /students/{id}", () -> json(put("/students/{id}", studentId()),
+                Map.of("name", "Budget Student Renamed"))));
+        scenarios.add(new Scenario("POST /courses", () -> json(post("/courses"), Map.of(
+                "name", COURSE, "description", "Query budget course", "capacity", 30,
+                "scheduleDays", List.of("MON", "WED"), "scheduleTime", "09:00-10:30",
+                "period", "2026-1", "weeklyHours", 3))));
+        scenarios.add(new Scenario("PUT /courses/{id}", () -> json(put("/courses/{id}", courseId(COURSE)),
+                Map.of("description", "Query budget course, updated"))));
+        scenarios.add(new Scenario("PUT /courses/{id}/prerequisites", () -> {
+            createCourse(FOLLOW_UP);
+            return json(put("/courses/{id}/prerequisites", courseId(FOLLOW_UP)),
+                    Map.of("prerequisiteIds", List.of(courseId(COURSE))));
+        }));
+        scenarios.add(new Scenario("POST /students/{id}/enroll", () -> json(post("/students/{id}/enroll", studentId()),
+                Map.of("courseId", courseId(COURSE)))));
+        scenarios.add(new Scenario("POST /courses/{id}/enrollments:batch", () -> json(
+                post("/courses/{id}/enrollments:batch", courseId(COURSE)),
+                Map.of("studentIds", List.of(userId("student@acas.com"))))));
+        scenarios.add(new Scenario("PUT /courses/{id}/evaluation-items", () -> json(
+                put("/courses/{id}/evaluation-items", courseId(COURSE)),
+                Map.of("items", List.of(Map.of("name", "Exam", "weight", 60), Map.of("name", "Project", "weight", 40))))));
+        scenarios.add(new Scenario("PUT /courses/{id}/grades", () -> json(put("/courses/{id}/grades", courseId(COURSE)),
+                Map.of("grades", List.of(Map.of("studentId", studentId(), "itemId", itemId("Exam"), "score", 4.5))))));
+        // Before the gradebook read, so the student's grades are not cached yet
+        scenarios.add(new Scenario("GET /students/{id}", () -> get("/students/{id}", studentId())));
+        scenarios.add(new Scenario("GET /courses/{id}/gradebook", () -> get("/courses/{id}/gradebook", courseId(COURSE))));
+        scenarios.add(new Scenario("GET /courses", () -> get("/courses")));
+        scenarios.add(new Scenario("GET /courses/{id}", () -> get("/courses/{id}", courseId(COURSE))));
+        scenarios.add(new Scenario("GET /students", () -> get("/students")));
+        scenarios.add(new Scenario("PUT /students/{id}/enroll/{courseId}", () -> json(
+                put("/students/{id}/enroll/{courseId}", studentId(), courseId(COURSE)), Map.of("status", "PASSED"))));
+        scenarios.add(new Scenario("GET /students/{id}/eligibility", () -> get("/students/{id}/eligibility", studentId())
+                .param("courseId", courseId(FOLLOW_UP))));
+        scenarios.add(new Scenario("GET /students/{id}/conflicts", () -> get("/students/{id}/conflicts", studentId())
+                .param("courseId", courseId(FOLLOW_UP))));
+        scenarios.add(new Scenario("GET /reports/dashboard", () -> get("/reports/dashboard")));
+        scenarios.add(new Scenario("GET /reports/courses/top", () -> get("/reports/courses/top")));
+        scenarios.add(new Scenario("GET /reports/enrollments/monthly", () -> get("/reports/enrollments/monthly")));
+        scenarios.add(new Scenario("GET /reports/teacher-load", () -> get("/reports/teacher-load")));
+        scenarios.add(new Scenario("DELETE /students/{id}/enroll/{courseId}", () -> delete(
+                "/students/{id}/enroll/{courseId}", userId("student@acas.com"), courseId(COURSE))));
+        scenarios.add(new Scenario("DELETE /courses/{id}", () -> delete("/courses/{id}", courseId(COURSE))));
+        scenarios.add(new Scenario("DELETE /students/{id}", () -> delete("/students/{id}", studentId())));
+        return scenarios;
+    }
+    
+    // Setup requests still pass through the enforced budget, so they must succeed too
+    private void createCourse(String name) {
+        try {
+            int status = mockMvc.perform(json(post("/courses"), Map.of("name", name, "description", name))
+                    .cookie(adminToken)).andReturn().getResponse().getStatus();
+            assertThat(status).isEqualTo(201);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) {
+        try {
+            return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private String studentId() {
+        return userId(STUDENT_EMAIL);
+    }
+    
+    private String userId(String email) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", String.class, email);
+    }
+    
+    private String courseId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM courses WHERE name = ?", String.class, name);
+    }
+    
+    private String itemId(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT i.id FROM evaluation_items i JOIN courses c ON c.id = i.course_id WHERE c.name = ? AND i.name = ?",
+                String.class, COURSE, name);
+    }
+    
+    private record Scenario(String endpoint, Supplier<MockHttpServletRequestBuilder> request) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.acas.metrics;
+
+/**
+ * Counts the SQL statements prepared on the current thread between {@link #start()} and
+ * {@link #close()}, the way {@link QueryStatsFilter} does for a request. Per-thread, so
+ * scheduled jobs running meanwhile do not show up in the count.
+ */
+public final class StatementCounter implements AutoCloseable {
+    
+    private final RequestQueryStats stats;
+    
+    private StatementCounter(RequestQueryStats stats) {
+        this.stats = stats;
+    }
+    
+    public static StatementCounter start() {
+        return new StatementCounter(RequestQueryStats.start());
+    }
+    
+    public int statements() {
+        return stats.getStatements();
+    }
+    
+    @Override
+    public void close() {
+        RequestQueryStats.clear();
+    }
+}
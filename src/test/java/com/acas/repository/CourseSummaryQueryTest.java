@@ -0,0 +1,102 @@
+package com.acas.repository;
+
+import com.acas.dto.PaginationDto;
+import com.acas.dto.course.CourseSummary;
+import com.acas.metrics.StatementCounter;
+import com.acas.model.Course;
+import com.acas.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A course page is one summary query plus its count, however many courses and students
+ * it covers; instructor names and student counts come from the same row.
+ */
+@SpringBootTest(properties = "app.seed-data.enabled=false")
+@Transactional
+class CourseSummaryQueryTest {
+    
+    private static final int COURSES = 15;
+    private static final int STUDENTS = 5;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    private User instructor;
+    
+    @BeforeEach
+    void setUp() {
+        instructor = userRepository.save(user("teacher@test.edu", User.UserRole.TEACHER));
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(userRepository.save(user("student" + i + "@test.edu", User.UserRole.STUDENT)));
+        }
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setName("Course " + i);
+            course.setInstructor(instructor);
+            course.getStudents().addAll(students);
+            courseRepository.save(course);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void pageIsOneQueryPlusCount() {
+        Page<CourseSummary> page;
+        try (StatementCounter counter = StatementCounter.start()) {
+            page = courseRepository.findSummariesByInstructorId(instructor.getId(), PageRequest.of(0, 10));
+            assertThat(counter.statements()).isEqualTo(2);
+        }
+        
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(COURSES);
+        assertThat(page.getContent()).allSatisfy(summary -> {
+            assertThat(summary.instructorName()).isEqualTo(instructor.getName());
+            assertThat(summary.studentsCount()).isEqualTo(STUDENTS);
+        });
+    }
+    
+    @Test
+    void keysetSliceSkipsTheCount() {
+        Slice<CourseSummary> first;
+        Slice<CourseSummary> second;
+        try (StatementCounter counter = StatementCounter.start()) {
+            first = courseRepository.findSummariesAfter(PaginationDto.BEFORE_FIRST, PageRequest.of(0, 10));
+            second = courseRepository.findSummariesAfter(first.getContent().get(9).id(), PageRequest.of(0, 10));
+            assertThat(counter.statements()).isEqualTo(2);
+        }
+        
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).hasSize(COURSES - 10);
+        assertThat(second.hasNext()).isFalse();
+    }
+    
+    private static User user(String email, User.UserRole role) {
+        User user = new User();
+        user.setName(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,155 @@
+package com.acas.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enrollments, unenrollments and rollbacks from many threads against one capped course,
+ * with reconciliation running the whole time. The committed row count stands in for
+ * {@code course_enrollments} and must never exceed the capacity.
+ */
+class SeatLedgerTest {
+    
+    private static final String COURSE_ID = "0190b7a2-6c1e-7000-8000-000000000001";
+    private static final int CAPACITY = 20;
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20_000;
+    
+    private final AtomicInteger rows = new AtomicInteger();
+    // Committed rows no transaction is deleting yet, i.e. what a DELETE would find unlocked
+    private final AtomicInteger unclaimed = new AtomicInteger();
+    private final AtomicInteger maxRows = new AtomicInteger();
+    
+    @Test
+    void neverOversellsWhileReconciling() throws Exception {
+        SeatLedger ledger = new SeatLedger(new CourseTable(), 4);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            Future<?> reconciler = executor.submit(() -> {
+                await(start);
+                while (!done.get()) {
+                    ledger.reconcile(COURSE_ID);
+                }
+            });
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    await(start);
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        step(ledger);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            done.set(true);
+            reconciler.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(maxRows.get()).isLessThanOrEqualTo(CAPACITY);
+        ledger.reconcile(COURSE_ID);
+        assertThat(ledger.availableSeats(COURSE_ID)).isEqualTo(CAPACITY - rows.get());
+    }
+    
+    // One enrollment, rolled-back enrollment or unenrollment, chosen at random
+    private void step(SeatLedger ledger) {
+        int action = ThreadLocalRandom.current().nextInt(3);
+        if (action == 0) {
+            inTransaction(() -> ledger.tryReserve(COURSE_ID, 1) == 1 ? (Runnable) this::insertRow : null);
+        } else if (action == 1) {
+            inTransaction(() -> {
+                ledger.tryReserve(COURSE_ID, 1);
+                return null;
+            });
+        } else {
+            inTransaction(() -> {
+                if (!claimRow()) {
+                    return null;
+                }
+                ledger.release(COURSE_ID, 1);
+                return rows::decrementAndGet;
+            });
+        }
+    }
+    
+    private void insertRow() {
+        int count = rows.incrementAndGet();
+        maxRows.accumulateAndGet(count, Math::max);
+        unclaimed.incrementAndGet();
+    }
+    
+    // Unenrollment only releases a seat when its DELETE removed a row
+    private boolean claimRow() {
+        return unclaimed.getAndUpdate(count -> Math.max(0, count - 1)) > 0;
+    }
+    
+    /**
+     * Runs the body with transaction synchronization active. The body returns the change to
+     * commit, or null to roll back; the change is applied before the completion callbacks,
+     * as a database commit would be.
+     */
+    private static void inTransaction(Supplier<Runnable> body) {
+        TransactionSynchronizationManager.initSynchronization();
+        Runnable commit;
+        List<TransactionSynchronization> synchronizations;
+        try {
+            commit = body.get();
+        } finally {
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (commit != null) {
+            commit.run();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = commit != null ? TransactionSynchronization.STATUS_COMMITTED
+                : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /** Answers the ledger's two queries from the in-memory row count. */
+    private final class CourseTable extends JdbcTemplate {
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            return (List<T>) List.of(CAPACITY);
+        }
+        
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return requiredType.cast(rows.get());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+#!/bin/bash
+
+# ACAS Backend - Startup Benchmark
+#
+# Builds the Docker image and measures time-to-first-request: from `docker run` until
+# /api/actuator/health answers 200. Each run starts a fresh container. Results are
+# appended to target/startup-benchmark.csv so releases can be compared.
+#
+# Usage: ./startup-benchmark.sh [runs]
+#   IMAGE=acas-back:bench      image tag to build and run
+#   SKIP_BUILD=true            reuse an existing image
+#   PORT=3101                  host port mapped to the container
+#   ENV_FILE=.env              database settings; without it the image runs on in-memory H2
+#                              with schema creation turned back on, since the fast profile only validates it
+#   TIMEOUT=120                seconds to wait for the first response
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$SCRIPT_DIR"
+
+RUNS=${1:-5}
+IMAGE=${IMAGE:-acas-back:bench}
+PORT=${PORT:-3101}
+TIMEOUT=${TIMEOUT:-120}
+RESULTS=target/startup-benchmark.csv
+HEALTH_URL="http://localhost:$PORT/api/actuator/health"
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+print_success() {
+    echo -e "${GREEN}✓ $1${NC}"
+}
+
+print_error() {
+    echo -e "${RED}✗ $1${NC}"
+}
+
+print_info() {
+    echo -e "${BLUE}ℹ $1${NC}"
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+if [ -n "$ENV_FILE" ]; then
+    RUN_ARGS=(--env-file "$ENV_FILE")
+else
+    RUN_ARGS=(-e SPRING_JPA_HIBERNATE_DDL_AUTO=create)
+fi
+
+if [ "$SKIP_BUILD" != "true" ]; then
+    print_info "Building $IMAGE..."
+    docker build -q -t "$IMAGE" . > /dev/null
+    print_success "Image built"
+fi
+
+REVISION=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+mkdir -p target
+if [ ! -f "$RESULTS" ]; then
+    echo "timestamp,revision,image,run,first_request_ms,jvm_started_ms" > "$RESULTS"
+fi
+
+TIMES=()
+for run in $(seq 1 "$RUNS"); do
+    started=$(now_ms)
+    container=$(docker run -d -p "$PORT:3001" "${RUN_ARGS[@]}" "$IMAGE")
+
+    until curl -sf -o /dev/null "$HEALTH_URL"; do
+        if [ -z "$(docker ps -q --filter "id=$container")" ]; then
+            print_error "Container exited before answering; last log lines:"
+            docker logs --tail 30 "$container"
+            docker rm -f "$container" > /dev/null
+            exit 1
+        fi
+        if [ $(( $(now_ms) - started )) -gt $(( TIMEOUT * 1000 )) ]; then
+            print_error "No response within ${TIMEOUT}s"
+            docker rm -f "$container" > /dev/null
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - started ))
+
+    # Spring's own figure, for telling JVM/context start-up apart from container overhead
+    jvm_seconds=$(docker logs "$container" 2>&1 | sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' | head -1)
+    jvm_ms=$(awk -v s="${jvm_seconds:-0}" 'BEGIN { printf "%d", s * 1000 }')
+    docker rm -f "$container" > /dev/null
+
+    TIMES+=("$elapsed")
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$REVISION,$IMAGE,$run,$elapsed,$jvm_ms" >> "$RESULTS"
+    print_info "Run $run: first request after ${elapsed} ms (Spring reported ${jvm_ms} ms)"
+done
+
+SORTED=($(printf '%s\n' "${TIMES[@]}" | sort -n))
+median=${SORTED[$(( RUNS / 2 ))]}
+print_success "Time to first request over $RUNS runs: median ${median} ms, min ${SORTED[0]} ms, max ${SORTED[$(( RUNS - 1 ))]} ms"
+print_info "Results appended to $RESULTS"